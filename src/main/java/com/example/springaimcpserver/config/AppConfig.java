@@ -1,16 +1,21 @@
 package com.example.springaimcpserver.config;
 
+import com.example.springaimcpserver.logging.MdcTaskDecorator;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.io.File;
 import java.util.concurrent.Executor;
 
 @Configuration
-public class AppConfig {
+@EnableScheduling
+public class AppConfig implements WebMvcConfigurer {
 
     @Value("${app.document.temp-dir}")
     private String tempDir;
@@ -21,16 +26,35 @@ public class AppConfig {
     }
 
     @Bean
-    public Executor taskExecutor() {
+    public ThreadPoolTaskExecutor taskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
         executor.setQueueCapacity(25);
         executor.setThreadNamePrefix("DocumentGen-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
         executor.initialize();
         return executor;
     }
 
+    @Bean
+    public Executor aiChunkExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("AiChunk-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // 비동기 응답(CompletableFuture, StreamingResponseBody)도 같은 풀에서 처리
+        configurer.setTaskExecutor(taskExecutor());
+    }
+
     @Bean
     public void initTempDirectory() {
         File dir = new File(tempDir);
@@ -0,0 +1,15 @@
+package com.example.springaimcpserver.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 클러스터 모드 설정
+ * 공유 작업 큐 폴링과 임대 연장을 위해 스케줄링을 활성화합니다.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.cluster.enabled", havingValue = "true")
+public class ClusterConfig {
+}
@@ -0,0 +1,20 @@
+package com.example.springaimcpserver.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * reactive 프로파일 설정
+ * 서블릿 컨테이너(Tomcat)도 클래스패스에 있으므로, zero-copy 전송을 지원하는 Netty 를 명시적으로 선택합니다.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -1,33 +1,52 @@
 package com.example.springaimcpserver.controller;
 
+import com.example.springaimcpserver.logging.LogPayloads;
+import com.example.springaimcpserver.model.DocumentPatchRequest;
 import com.example.springaimcpserver.model.DocumentRequest;
 import com.example.springaimcpserver.model.DocumentResponse;
+import com.example.springaimcpserver.service.ArtifactStore;
 import com.example.springaimcpserver.service.DocumentGeneratorFactory;
 import com.example.springaimcpserver.service.DocumentGeneratorService;
+import com.example.springaimcpserver.service.DocumentJobScheduler;
+import com.example.springaimcpserver.service.IdempotencyStore;
+import com.example.springaimcpserver.service.impl.ExcelIngestService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/documents")
 @RequiredArgsConstructor
+@Profile("!reactive")
 public class DocumentController {
 
     private final DocumentGeneratorFactory documentGeneratorFactory;
+    private final DocumentJobScheduler documentJobScheduler;
+    private final ExcelIngestService excelIngestService;
+    private final IdempotencyStore idempotencyStore;
+    private final ArtifactStore artifactStore;
     
     @Value("${app.document.temp-dir}")
     private String tempDir;
@@ -35,15 +54,29 @@ public class DocumentController {
     /**
      * 새 문서 생성 요청을 처리합니다.
      * 
-     * @param request 문서 생성 요청 객체
-     * @return 문서 생성 응답 (비동기)
+     * @param request  문서 생성 요청 객체
+     * @param priority 우선순위 레인 (interactive, batch, background)
+     * @param tenantId 테넌트 ID
+     * @param apiKey   API 키 (테넌트 ID 가 없을 때 테넌트 구분에 사용)
+     * @param idempotencyKey 재시도 시 같은 작업을 돌려받기 위한 키 (테넌트별로 구분)
+     * @return 문서 생성 응답 (비동기), 같은 키로 다른 내용을 보내면 409
      */
     @PostMapping
-    public CompletableFuture<ResponseEntity<DocumentResponse>> createDocument(@Valid @RequestBody DocumentRequest request) {
-        log.info("문서 생성 요청: {}", request);
+    public CompletableFuture<ResponseEntity<DocumentResponse>> createDocument(
+            @Valid @RequestBody DocumentRequest request,
+            @RequestHeader(value = DocumentJobScheduler.PRIORITY_HEADER, required = false) String priority,
+            @RequestHeader(value = DocumentJobScheduler.TENANT_HEADER, required = false) String tenantId,
+            @RequestHeader(value = DocumentJobScheduler.API_KEY_HEADER, required = false) String apiKey,
+            @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        log.info("문서 생성 요청: {}", LogPayloads.summarize(request));
+        // 재시도 비교는 헤더로 정해지는 우선순위/테넌트가 반영되기 전의 클라이언트 요청 기준
+        String fingerprint = IdempotencyStore.hasKey(idempotencyKey) ? idempotencyStore.fingerprint(request) : null;
+        documentJobScheduler.applyRequestHeaders(request, priority, tenantId, apiKey);
         
         DocumentGeneratorService generatorService = documentGeneratorFactory.getGenerator(request.getDocumentType());
-        CompletableFuture<DocumentResponse> futureResponse = generatorService.generateDocument(request);
+        CompletableFuture<DocumentResponse> futureResponse = fingerprint == null
+                ? generatorService.generateDocument(request)
+                : idempotencyStore.execute(idempotencyKey, fingerprint, request, () -> generatorService.generateDocument(request));
         
         return futureResponse.thenApply(response -> {
             URI location = ServletUriComponentsBuilder
@@ -56,6 +89,96 @@ public class DocumentController {
         });
     }
 
+    /**
+     * Accept 헤더가 문서 미디어 타입이면 문서를 생성하여 응답 본문으로 바로 전송합니다.
+     * 임시 파일과 상태 저장 없이 한 번의 요청으로 끝나므로 작은 문서에 적합합니다.
+     *
+     * @param request  문서 생성 요청 객체
+     * @param accept   Accept 헤더
+     * @param priority 우선순위 레인 (interactive, batch, background)
+     * @param tenantId 테넌트 ID
+     * @param apiKey   API 키 (테넌트 ID 가 없을 때 테넌트 구분에 사용)
+     * @return 문서 스트림 (비동기)
+     */
+    @PostMapping(produces = {
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+            "application/vnd.openxmlformats-officedocument.presentationml.presentation",
+            "text/csv"})
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> createDocumentInline(
+            @Valid @RequestBody DocumentRequest request,
+            @RequestHeader(HttpHeaders.ACCEPT) String accept,
+            @RequestHeader(value = DocumentJobScheduler.PRIORITY_HEADER, required = false) String priority,
+            @RequestHeader(value = DocumentJobScheduler.TENANT_HEADER, required = false) String tenantId,
+            @RequestHeader(value = DocumentJobScheduler.API_KEY_HEADER, required = false) String apiKey) {
+        log.info("인라인 문서 생성 요청: {}", LogPayloads.summarize(request));
+        documentJobScheduler.applyRequestHeaders(request, priority, tenantId, apiKey);
+
+        DocumentGeneratorService generatorService = documentGeneratorFactory.getGenerator(request.getDocumentType());
+        MediaType mediaType = generatorService.getMediaType();
+
+        if (MediaType.parseMediaTypes(accept).stream().noneMatch(mediaType::isCompatibleWith)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build());
+        }
+
+        String fileName = request.getTitle().replaceAll("[^a-zA-Z0-9가-힣]", "_") + generatorService.getFileExtension();
+
+        return generatorService.renderInline(request).thenApply(writer -> ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName, StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .contentType(mediaType)
+                .body(writer::writeTo));
+    }
+
+    /**
+     * 클라이언트가 보낸 CSV/TSV/NDJSON 데이터를 AI 를 거치지 않고 엑셀 파일로 기록합니다.
+     * 요청 본문은 작업 스케줄러에서 스트리밍으로 읽으며, AI 는 summary=true 일 때 요약 시트에만 사용합니다.
+     *
+     * @param title          문서 제목
+     * @param sheetName      데이터 시트 이름
+     * @param summary        AI 요약 시트 생성 여부
+     * @param contentType    요청 본문 형식
+     * @param priority       우선순위 레인 (interactive, batch, background)
+     * @param tenantId       테넌트 ID
+     * @param apiKey         API 키 (테넌트 ID 가 없을 때 테넌트 구분에 사용)
+     * @param idempotencyKey 재시도 시 같은 작업을 돌려받기 위한 키 (제목과 적재 옵션으로 비교)
+     * @param body           요청 본문
+     * @return 문서 생성 응답 (비동기), 입력 오류는 400, 처리 중 오류는 500
+     */
+    @PostMapping(value = "/excel/ingest",
+            consumes = {"text/csv", "text/tab-separated-values", "application/x-ndjson"})
+    public CompletableFuture<ResponseEntity<DocumentResponse>> ingestExcelData(
+            @RequestParam String title,
+            @RequestParam(defaultValue = "Data") String sheetName,
+            @RequestParam(defaultValue = "false") boolean summary,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestHeader(value = DocumentJobScheduler.PRIORITY_HEADER, required = false) String priority,
+            @RequestHeader(value = DocumentJobScheduler.TENANT_HEADER, required = false) String tenantId,
+            @RequestHeader(value = DocumentJobScheduler.API_KEY_HEADER, required = false) String apiKey,
+            @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            InputStream body) {
+        log.info("데이터 적재 요청: title={}, sheetName={}, contentType={}", title, sheetName, contentType);
+
+        ExcelIngestService.Format format = ExcelIngestService.Format.from(contentType);
+        DocumentRequest request = ExcelIngestService.ingestRequest(title, sheetName, format, summary);
+        String fingerprint = IdempotencyStore.hasKey(idempotencyKey) ? idempotencyStore.fingerprint(request) : null;
+        documentJobScheduler.applyRequestHeaders(request, priority, tenantId, apiKey);
+
+        CompletableFuture<DocumentResponse> futureResponse = fingerprint == null
+                ? excelIngestService.ingest(request, sheetName, format, body, summary)
+                : idempotencyStore.execute(idempotencyKey, fingerprint, request,
+                        () -> excelIngestService.ingest(request, sheetName, format, body, summary));
+
+        // 응답은 작업 스레드에서 만들어지므로 요청 스레드에서 기준 주소를 미리 구함
+        UriComponentsBuilder locationBuilder = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/documents/{id}");
+
+        return futureResponse.thenApply(response -> ResponseEntity
+                .created(locationBuilder.buildAndExpand(response.getId()).toUri())
+                .body(response));
+    }
+
     /**
      * 문서 생성 상태를 조회합니다.
      * 
@@ -64,27 +187,69 @@ public class DocumentController {
      */
     @GetMapping("/{documentId}")
     public ResponseEntity<DocumentResponse> getDocumentStatus(@PathVariable String documentId) {
-        // 모든 생성기 서비스에서 문서 상태 조회 시도
-        for (DocumentRequest.DocumentType documentType : DocumentRequest.DocumentType.values()) {
-            try {
-                DocumentGeneratorService generatorService = documentGeneratorFactory.getGenerator(documentType);
-                DocumentResponse response = generatorService.getDocumentStatus(documentId);
-                
-                if (response.getStatus() != DocumentResponse.DocumentStatus.FAILED || 
-                        response.getErrorMessage() == null || 
-                        !response.getErrorMessage().contains("찾을 수 없습니다")) {
-                    return ResponseEntity.ok(response);
-                }
-            } catch (Exception e) {
-                log.debug("문서 조회 중 오류 발생: {}", e.getMessage());
-            }
+        return documentGeneratorFactory.findDocumentStatus(documentId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 완료된 문서의 지정한 시트 또는 슬라이드만 다시 생성합니다.
+     *
+     * @param documentId 문서 ID
+     * @param patch      부분 수정 요청 객체
+     * @return 수정된 문서 응답 (비동기), 문서가 없으면 404
+     */
+    @PatchMapping("/{documentId}")
+    public CompletableFuture<ResponseEntity<DocumentResponse>> patchDocument(
+            @PathVariable String documentId,
+            @Valid @RequestBody DocumentPatchRequest patch) {
+        log.info("문서 수정 요청: id={}, sheets={}, slides={}", documentId, patch.getSheets(), patch.getSlides());
+
+        return documentGeneratorFactory.findGenerator(documentId)
+                .map(generator -> generator.patchDocument(documentId, patch).thenApply(ResponseEntity::ok))
+                .orElseGet(() -> CompletableFuture.completedFuture(ResponseEntity.notFound().build()));
+    }
+
+    /**
+     * 완료된 문서 파일을 다운로드합니다.
+     * 문서 상태의 내용 해시로 저장된 파일을 찾고, 작업별 파일 이름으로 전송합니다.
+     * 파일 리소스로 응답하므로 Range 요청에는 206 부분 응답으로 이어받기를 지원합니다.
+     *
+     * @param documentId 문서 ID
+     * @return 파일 리소스, 완료된 문서가 없으면 404
+     */
+    @GetMapping("/{documentId}/download")
+    public ResponseEntity<Resource> downloadDocument(@PathVariable String documentId) {
+        Optional<DocumentGeneratorService> generatorService = documentGeneratorFactory.findGenerator(documentId);
+        if (generatorService.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
-        
-        return ResponseEntity.notFound().build();
+
+        DocumentResponse document = generatorService.get().getDocumentStatus(documentId);
+        if (document.getStatus() != DocumentResponse.DocumentStatus.COMPLETED) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Resource resource = new FileSystemResource(artifactStore.resolve(document));
+        if (!resource.exists()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(document.getFileName(), StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .contentType(generatorService.get().getMediaType(document.getFileName()));
+        if (document.getContentHash() != null) {
+            builder.eTag(document.getContentHash());
+        }
+        return builder.body(resource);
     }
 
     /**
      * 엑셀 문서 파일을 다운로드합니다.
+     * 내용 해시 저장소 도입 전에 생성되어 temp-dir 에 파일 이름으로 남아 있는 문서용입니다.
      * 
      * @param fileName 파일 이름
      * @return 파일 리소스
@@ -109,6 +274,7 @@ public class DocumentController {
 
     /**
      * PPT 문서 파일을 다운로드합니다.
+     * 내용 해시 저장소 도입 전에 생성되어 temp-dir 에 파일 이름으로 남아 있는 문서용입니다.
      * 
      * @param fileName 파일 이름
      * @return 파일 리소스
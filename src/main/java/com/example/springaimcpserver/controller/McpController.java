@@ -0,0 +1,160 @@
+package com.example.springaimcpserver.controller;
+
+import com.example.springaimcpserver.mcp.McpServerHandler;
+import com.example.springaimcpserver.mcp.McpSession;
+import com.example.springaimcpserver.mcp.McpSessionRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * MCP streamable HTTP 전송 엔드포인트
+ * tools/call 요청은 클라이언트가 SSE 를 허용하면 진행 알림과 결과를 하나의 스트림으로 전송합니다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/mcp")
+@RequiredArgsConstructor
+@Profile("!reactive")
+public class McpController {
+
+    public static final String SESSION_HEADER = "Mcp-Session-Id";
+
+    private final McpServerHandler mcpServerHandler;
+    private final McpSessionRegistry mcpSessionRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.mcp.sse-timeout:10m}")
+    private Duration sseTimeout;
+
+    /**
+     * 클라이언트의 JSON-RPC 메시지를 처리합니다.
+     *
+     * @param message   JSON-RPC 메시지 (단일 또는 배치)
+     * @param sessionId 세션 ID (initialize 요청은 생략)
+     * @param accept    Accept 헤더
+     * @return JSON 응답, SSE 스트림, 또는 202 Accepted
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Object handleMessage(@RequestBody JsonNode message,
+                                @RequestHeader(value = SESSION_HEADER, required = false) String sessionId,
+                                @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.APPLICATION_JSON_VALUE) String accept) {
+        if (isInitialize(message)) {
+            McpSession session = mcpSessionRegistry.create();
+            ObjectNode response = mcpServerHandler.handle(session, message, null).join();
+            return ResponseEntity.ok()
+                    .header(SESSION_HEADER, session.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(response);
+        }
+
+        if (sessionId == null) {
+            return ResponseEntity.badRequest()
+                    .body(mcpServerHandler.invalidRequest("Missing " + SESSION_HEADER + " header"));
+        }
+
+        Optional<McpSession> session = mcpSessionRegistry.find(sessionId);
+        if (session.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (message.isArray()) {
+            return handleBatch(session.get(), (ArrayNode) message);
+        }
+
+        if (isToolCall(message) && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+            return streamToolCall(session.get(), message);
+        }
+
+        return mcpServerHandler.handle(session.get(), message, null)
+                .thenApply(response -> response != null
+                        ? ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body((JsonNode) response)
+                        : ResponseEntity.status(HttpStatus.ACCEPTED).<JsonNode>build());
+    }
+
+    /**
+     * 서버 주도 알림 스트림은 제공하지 않습니다.
+     */
+    @GetMapping
+    public ResponseEntity<Void> openNotificationStream() {
+        return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).build();
+    }
+
+    /**
+     * 세션을 종료합니다.
+     *
+     * @param sessionId 세션 ID
+     * @return 204 No Content, 세션이 없으면 404
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> closeSession(@RequestHeader(SESSION_HEADER) String sessionId) {
+        return mcpSessionRegistry.remove(sessionId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private CompletableFuture<ResponseEntity<JsonNode>> handleBatch(McpSession session, ArrayNode messages) {
+        List<CompletableFuture<ObjectNode>> futures = new ArrayList<>();
+        messages.forEach(message -> futures.add(mcpServerHandler.handle(session, message, null)));
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    ArrayNode responses = objectMapper.createArrayNode();
+                    futures.stream().map(CompletableFuture::join).filter(r -> r != null).forEach(responses::add);
+
+                    return responses.isEmpty()
+                            ? ResponseEntity.status(HttpStatus.ACCEPTED).<JsonNode>build()
+                            : ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body((JsonNode) responses);
+                });
+    }
+
+    private SseEmitter streamToolCall(McpSession session, JsonNode message) {
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+
+        mcpServerHandler.handle(session, message, notification -> send(emitter, notification))
+                .whenComplete((response, ex) -> {
+                    if (ex != null) {
+                        emitter.completeWithError(ex);
+                        return;
+                    }
+                    send(emitter, response);
+                    emitter.complete();
+                });
+
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, JsonNode message) {
+        try {
+            emitter.send(SseEmitter.event().name("message").data(message, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("MCP SSE 전송 실패: {}", e.getMessage());
+        }
+    }
+
+    private boolean isInitialize(JsonNode message) {
+        return message.isObject() && "initialize".equals(message.path("method").asText());
+    }
+
+    private boolean isToolCall(JsonNode message) {
+        return "tools/call".equals(message.path("method").asText()) && message.hasNonNull("id");
+    }
+}
@@ -0,0 +1,414 @@
+package com.example.springaimcpserver.controller;
+
+import com.example.springaimcpserver.logging.LogPayloads;
+import com.example.springaimcpserver.model.DocumentPatchRequest;
+import com.example.springaimcpserver.model.DocumentRequest;
+import com.example.springaimcpserver.model.DocumentResponse;
+import com.example.springaimcpserver.service.ArtifactStore;
+import com.example.springaimcpserver.service.DocumentGeneratorFactory;
+import com.example.springaimcpserver.service.DocumentGeneratorService;
+import com.example.springaimcpserver.service.DocumentJobScheduler;
+import com.example.springaimcpserver.service.IdempotencyStore;
+import com.example.springaimcpserver.service.impl.ExcelIngestService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * reactive 프로파일에서 사용하는 논블로킹 문서 API
+ * {@link DocumentController} 와 동일한 엔드포인트를 제공합니다.
+ * 요청 처리와 파일 전송은 이벤트 루프에서 논블로킹으로 처리하지만, 모델 호출과 렌더링은
+ * {@link DocumentJobScheduler} 의 작업 스레드에서 블로킹으로 실행되며 결과를 Mono 로 받습니다.
+ * 상태 저장소 조회(cluster 모드의 JDBC), 작업 접수 시의 상태/체크포인트 저장, 파일 시스템 조회는
+ * 이벤트 루프를 막지 않도록 boundedElastic 스케줄러에서 실행합니다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/documents")
+@RequiredArgsConstructor
+@Profile("reactive")
+public class ReactiveDocumentController {
+
+    private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
+
+    // 적재 본문을 읽을 때 미리 요청할 DataBuffer 수 (작업 스레드가 읽는 만큼만 더 받음)
+    private static final int INGEST_PREFETCH = 16;
+
+    private final DocumentGeneratorFactory documentGeneratorFactory;
+    private final DocumentJobScheduler documentJobScheduler;
+    private final IdempotencyStore idempotencyStore;
+    private final ArtifactStore artifactStore;
+    private final ExcelIngestService excelIngestService;
+
+    @Value("${app.document.temp-dir}")
+    private String tempDir;
+
+    @Value("${app.document.status-stream-interval:1s}")
+    private Duration statusStreamInterval;
+
+    /**
+     * 새 문서 생성 요청을 처리합니다.
+     *
+     * @param request     문서 생성 요청 객체
+     * @param httpRequest 현재 HTTP 요청
+     * @return 문서 생성 응답
+     */
+    @PostMapping
+    public Mono<ResponseEntity<DocumentResponse>> createDocument(@Valid @RequestBody DocumentRequest request,
+                                                                 ServerHttpRequest httpRequest) {
+        log.info("문서 생성 요청: {}", LogPayloads.summarize(request));
+        HttpHeaders headers = httpRequest.getHeaders();
+        String idempotencyKey = headers.getFirst(IdempotencyStore.IDEMPOTENCY_KEY_HEADER);
+        // 재시도 비교는 헤더로 정해지는 우선순위/테넌트가 반영되기 전의 클라이언트 요청 기준
+        String fingerprint = IdempotencyStore.hasKey(idempotencyKey) ? idempotencyStore.fingerprint(request) : null;
+        documentJobScheduler.applyRequestHeaders(request,
+                headers.getFirst(DocumentJobScheduler.PRIORITY_HEADER),
+                headers.getFirst(DocumentJobScheduler.TENANT_HEADER),
+                headers.getFirst(DocumentJobScheduler.API_KEY_HEADER));
+
+        DocumentGeneratorService generatorService = documentGeneratorFactory.getGenerator(request.getDocumentType());
+
+        return Mono.fromFuture(() -> fingerprint == null
+                        ? generatorService.generateDocument(request)
+                        : idempotencyStore.execute(idempotencyKey, fingerprint, request, () -> generatorService.generateDocument(request)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(response -> {
+                    URI location = UriComponentsBuilder.fromUri(httpRequest.getURI())
+                            .path("/{id}")
+                            .buildAndExpand(response.getId())
+                            .toUri();
+
+                    return ResponseEntity.created(location).body(response);
+                });
+    }
+
+    /**
+     * Accept 헤더가 문서 미디어 타입이면 문서를 생성하여 응답 본문으로 바로 전송합니다.
+     * 임시 파일과 상태 저장 없이 한 번의 요청으로 끝나므로 작은 문서에 적합합니다.
+     * 렌더링된 문서는 boundedElastic 스레드에서 출력 스트림으로 기록하며, 클라이언트가 요청한 만큼만 DataBuffer 로 전송합니다.
+     *
+     * @param request     문서 생성 요청 객체
+     * @param httpRequest 현재 HTTP 요청 (Accept 와 스케줄링 헤더)
+     * @param response    현재 HTTP 응답
+     * @return 문서 스트림, 요청 형식이 문서 형식과 맞지 않으면 406
+     */
+    @PostMapping(produces = {
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+            "application/vnd.openxmlformats-officedocument.presentationml.presentation",
+            "text/csv"})
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createDocumentInline(@Valid @RequestBody DocumentRequest request,
+                                                                       ServerHttpRequest httpRequest,
+                                                                       ServerHttpResponse response) {
+        log.info("인라인 문서 생성 요청: {}", LogPayloads.summarize(request));
+        HttpHeaders headers = httpRequest.getHeaders();
+        documentJobScheduler.applyRequestHeaders(request,
+                headers.getFirst(DocumentJobScheduler.PRIORITY_HEADER),
+                headers.getFirst(DocumentJobScheduler.TENANT_HEADER),
+                headers.getFirst(DocumentJobScheduler.API_KEY_HEADER));
+
+        DocumentGeneratorService generatorService = documentGeneratorFactory.getGenerator(request.getDocumentType());
+        MediaType mediaType = generatorService.getMediaType();
+
+        if (headers.getAccept().stream().noneMatch(mediaType::isCompatibleWith)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build());
+        }
+
+        String fileName = request.getTitle().replaceAll("[^a-zA-Z0-9가-힣]", "_") + generatorService.getFileExtension();
+
+        return Mono.fromFuture(() -> generatorService.renderInline(request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(writer -> ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                .filename(fileName, StandardCharsets.UTF_8)
+                                .build()
+                                .toString())
+                        .contentType(mediaType)
+                        .body(Flux.from(DataBufferUtils.outputStreamPublisher(out -> {
+                            try {
+                                writer.writeTo(out);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }, response.bufferFactory(), Schedulers.boundedElastic()::schedule, DOWNLOAD_BUFFER_SIZE))));
+    }
+
+    /**
+     * 클라이언트가 보낸 CSV/TSV/NDJSON 데이터를 AI 를 거치지 않고 엑셀 파일로 기록합니다.
+     * 요청 본문은 작업 스케줄러의 스레드가 읽는 만큼만 받아 오므로 전체를 메모리에 모으지 않습니다.
+     *
+     * @param title       문서 제목
+     * @param sheetName   데이터 시트 이름
+     * @param summary     AI 요약 시트 생성 여부
+     * @param httpRequest 현재 HTTP 요청 (본문과 스케줄링 헤더)
+     * @return 문서 생성 응답, 입력 오류는 400, 처리 중 오류는 500
+     */
+    @PostMapping(value = "/excel/ingest",
+            consumes = {"text/csv", "text/tab-separated-values", "application/x-ndjson"})
+    public Mono<ResponseEntity<DocumentResponse>> ingestExcelData(@RequestParam String title,
+                                                                  @RequestParam(defaultValue = "Data") String sheetName,
+                                                                  @RequestParam(defaultValue = "false") boolean summary,
+                                                                  ServerHttpRequest httpRequest) {
+        HttpHeaders headers = httpRequest.getHeaders();
+        MediaType contentType = headers.getContentType();
+        log.info("데이터 적재 요청: title={}, sheetName={}, contentType={}", title, sheetName, contentType);
+
+        ExcelIngestService.Format format = ExcelIngestService.Format.from(contentType);
+        DocumentRequest request = ExcelIngestService.ingestRequest(title, sheetName, format, summary);
+        String idempotencyKey = headers.getFirst(IdempotencyStore.IDEMPOTENCY_KEY_HEADER);
+        String fingerprint = IdempotencyStore.hasKey(idempotencyKey) ? idempotencyStore.fingerprint(request) : null;
+        documentJobScheduler.applyRequestHeaders(request,
+                headers.getFirst(DocumentJobScheduler.PRIORITY_HEADER),
+                headers.getFirst(DocumentJobScheduler.TENANT_HEADER),
+                headers.getFirst(DocumentJobScheduler.API_KEY_HEADER));
+
+        Supplier<CompletableFuture<DocumentResponse>> ingestion = () -> excelIngestService.ingest(request, sheetName,
+                format, DataBufferUtils.subscriberInputStream(httpRequest.getBody(), INGEST_PREFETCH), summary);
+
+        return Mono.fromFuture(() -> fingerprint == null
+                        ? ingestion.get()
+                        : idempotencyStore.execute(idempotencyKey, fingerprint, request, ingestion))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(response -> {
+                    URI location = UriComponentsBuilder.fromUri(httpRequest.getURI())
+                            .replacePath("/api/documents/{id}")
+                            .replaceQuery(null)
+                            .buildAndExpand(response.getId())
+                            .toUri();
+
+                    return ResponseEntity.created(location).body(response);
+                });
+    }
+
+    /**
+     * 문서 생성 상태를 조회합니다.
+     *
+     * @param documentId 문서 ID
+     * @return 문서 상태
+     */
+    @GetMapping("/{documentId}")
+    public Mono<ResponseEntity<DocumentResponse>> getDocumentStatus(@PathVariable String documentId) {
+        return findDocumentStatus(documentId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 완료된 문서의 지정한 시트 또는 슬라이드만 다시 생성합니다.
+     *
+     * @param documentId 문서 ID
+     * @param patch      부분 수정 요청 객체
+     * @return 수정된 문서 응답, 문서가 없으면 404
+     */
+    @PatchMapping("/{documentId}")
+    public Mono<ResponseEntity<DocumentResponse>> patchDocument(@PathVariable String documentId,
+                                                                @Valid @RequestBody DocumentPatchRequest patch) {
+        log.info("문서 수정 요청: id={}, sheets={}, slides={}", documentId, patch.getSheets(), patch.getSlides());
+
+        return blocking(() -> documentGeneratorFactory.findGenerator(documentId))
+                .mapNotNull(found -> found.orElse(null))
+                .flatMap(generator -> Mono.fromFuture(() -> generator.patchDocument(documentId, patch))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 문서 생성 상태 변화를 완료 또는 실패할 때까지 Server-Sent Events 로 전송합니다.
+     *
+     * @param documentId 문서 ID
+     * @return 문서 상태 이벤트 스트림, 문서가 없으면 404
+     */
+    @GetMapping(value = "/{documentId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<ResponseEntity<Flux<ServerSentEvent<DocumentResponse>>>> streamDocumentStatus(
+            @PathVariable String documentId) {
+        Flux<ServerSentEvent<DocumentResponse>> events = Flux.interval(Duration.ZERO, statusStreamInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> blocking(() -> documentGeneratorFactory.findDocumentStatus(documentId)), 1)
+                .takeWhile(Optional::isPresent)
+                .map(Optional::get)
+                .distinctUntilChanged(DocumentResponse::getStatus)
+                .takeUntil(status -> status.getStatus() != DocumentResponse.DocumentStatus.PROCESSING)
+                .map(status -> ServerSentEvent.builder(status)
+                        .id(status.getId())
+                        .event(status.getStatus().name())
+                        .build());
+
+        return findDocumentStatus(documentId)
+                .map(status -> ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(events))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 완료된 문서 파일을 다운로드합니다.
+     * 문서 상태의 내용 해시로 저장된 파일을 찾고, 작업별 파일 이름으로 전송합니다.
+     *
+     * @param documentId 문서 ID
+     * @param request    현재 HTTP 요청 (Range 헤더)
+     * @param response   현재 HTTP 응답
+     * @return 전송 완료 신호
+     */
+    @GetMapping("/{documentId}/download")
+    public Mono<Void> downloadDocument(@PathVariable String documentId, ServerHttpRequest request,
+                                       ServerHttpResponse response) {
+        return blocking(() -> documentGeneratorFactory.findGenerator(documentId)
+                        .flatMap(generator -> Optional.ofNullable(generator.getDocumentStatus(documentId))
+                                .filter(document -> document.getStatus() == DocumentResponse.DocumentStatus.COMPLETED)
+                                .map(document -> new Download(document, generator.getMediaType(document.getFileName())))))
+                .flatMap(download -> download
+                        .map(found -> {
+                            DocumentResponse document = found.document();
+                            if (document.getContentHash() != null) {
+                                response.getHeaders().setETag("\"" + document.getContentHash() + "\"");
+                            }
+                            return writeFile(artifactStore.resolve(document), document.getFileName(),
+                                    found.mediaType(), request, response);
+                        })
+                        .orElseGet(() -> {
+                            response.setStatusCode(HttpStatus.NOT_FOUND);
+                            return response.setComplete();
+                        }));
+    }
+
+    /**
+     * 엑셀 문서 파일을 다운로드합니다.
+     * 내용 해시 저장소 도입 전에 생성되어 temp-dir 에 파일 이름으로 남아 있는 문서용입니다.
+     *
+     * @param fileName 파일 이름
+     * @param request  현재 HTTP 요청 (Range 헤더)
+     * @param response 현재 HTTP 응답
+     * @return 전송 완료 신호
+     */
+    @GetMapping("/excel/download/{fileName:.+}")
+    public Mono<Void> downloadExcelFile(@PathVariable String fileName, ServerHttpRequest request,
+                                        ServerHttpResponse response) {
+        return writeFile(Paths.get(tempDir, fileName), fileName,
+                MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+                request, response);
+    }
+
+    /**
+     * PPT 문서 파일을 다운로드합니다.
+     * 내용 해시 저장소 도입 전에 생성되어 temp-dir 에 파일 이름으로 남아 있는 문서용입니다.
+     *
+     * @param fileName 파일 이름
+     * @param request  현재 HTTP 요청 (Range 헤더)
+     * @param response 현재 HTTP 응답
+     * @return 전송 완료 신호
+     */
+    @GetMapping("/ppt/download/{fileName:.+}")
+    public Mono<Void> downloadPptFile(@PathVariable String fileName, ServerHttpRequest request,
+                                      ServerHttpResponse response) {
+        return writeFile(Paths.get(tempDir, fileName), fileName,
+                MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.presentationml.presentation"),
+                request, response);
+    }
+
+    /**
+     * 파일을 응답으로 전송합니다.
+     * 서버가 지원하면 zero-copy(sendfile) 로, 그렇지 않으면 DataBuffer 스트림으로 전송합니다.
+     * 단일 Range 요청은 해당 구간만 206 으로 전송하여 대용량 파일의 이어받기를 지원하고,
+     * 여러 구간을 요청하면 전체 파일로 응답합니다.
+     */
+    private Mono<Void> writeFile(Path path, String fileName, MediaType mediaType, ServerHttpRequest request,
+                                 ServerHttpResponse response) {
+        // 파일이 없으면 -1
+        return blocking(() -> Files.isRegularFile(path) ? Files.size(path) : -1L)
+                .flatMap(size -> {
+                    if (size < 0) {
+                        response.setStatusCode(HttpStatus.NOT_FOUND);
+                        return response.setComplete();
+                    }
+                    return writeFile(path, size, fileName, mediaType, request, response);
+                });
+    }
+
+    private Mono<Void> writeFile(Path path, long size, String fileName, MediaType mediaType,
+                                 ServerHttpRequest request, ServerHttpResponse response) {
+        HttpHeaders headers = response.getHeaders();
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(fileName, StandardCharsets.UTF_8)
+                .build());
+        headers.add(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setContentType(mediaType);
+
+        long start = 0;
+        long length = size;
+        try {
+            List<HttpRange> ranges = request.getHeaders().getRange();
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(size);
+                length = ranges.get(0).getRangeEnd(size) - start + 1;
+                response.setStatusCode(HttpStatus.PARTIAL_CONTENT);
+                headers.set(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + start + "-" + (start + length - 1) + "/" + size);
+            }
+        } catch (IllegalArgumentException e) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            response.setStatusCode(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            return response.setComplete();
+        }
+        headers.setContentLength(length);
+
+        if (response instanceof ZeroCopyHttpOutputMessage zeroCopyResponse) {
+            return zeroCopyResponse.writeWith(path, start, length);
+        }
+
+        Flux<DataBuffer> body = DataBufferUtils.readAsynchronousFileChannel(
+                () -> AsynchronousFileChannel.open(path, StandardOpenOption.READ),
+                start, response.bufferFactory(), DOWNLOAD_BUFFER_SIZE);
+        return response.writeWith(DataBufferUtils.takeUntilByteCount(body, length));
+    }
+
+    private Mono<DocumentResponse> findDocumentStatus(String documentId) {
+        return blocking(() -> documentGeneratorFactory.findDocumentStatus(documentId))
+                .mapNotNull(found -> found.orElse(null));
+    }
+
+    /**
+     * 블로킹 호출을 boundedElastic 스케줄러에서 실행하는 Mono 를 만듭니다.
+     */
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * 다운로드할 완료 문서와 그 미디어 타입
+     */
+    private record Download(DocumentResponse document, MediaType mediaType) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.springaimcpserver.event;
+
+import com.example.springaimcpserver.model.DocumentRequest;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 문서 생성 작업의 단계가 바뀔 때 발행되는 이벤트
+ */
+@Getter
+public class DocumentStageEvent extends ApplicationEvent {
+
+    private final String documentId;
+    private final DocumentRequest request;
+    private final Stage stage;
+
+    public DocumentStageEvent(Object source, String documentId, DocumentRequest request, Stage stage) {
+        super(source);
+        this.documentId = documentId;
+        this.request = request;
+        this.stage = stage;
+    }
+
+    public enum Stage {
+        ACCEPTED,
+        GENERATING_CONTENT,
+        RENDERING,
+        COMPLETED,
+        FAILED;
+
+        /**
+         * 진행률 계산에 사용할 단계 순서를 반환합니다.
+         */
+        public int progress() {
+            return this == FAILED ? COMPLETED.ordinal() : ordinal();
+        }
+
+        public static int total() {
+            return COMPLETED.ordinal();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.springaimcpserver.exception;
+
+/**
+ * 문서의 현재 상태에서는 요청한 작업을 할 수 없는 경우 (예: 생성이 끝나지 않았거나 이미 수정 중인 문서의 수정)
+ */
+public class DocumentStateConflictException extends RuntimeException {
+
+    public DocumentStateConflictException(String message) {
+        super(message);
+    }
+}
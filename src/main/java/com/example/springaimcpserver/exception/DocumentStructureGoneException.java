@@ -0,0 +1,11 @@
+package com.example.springaimcpserver.exception;
+
+/**
+ * 부분 수정에 필요한 원본 구조가 보관 기간이 지나 삭제되었거나 남아 있지 않은 경우
+ */
+public class DocumentStructureGoneException extends RuntimeException {
+
+    public DocumentStructureGoneException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.springaimcpserver.exception;
+
+/**
+ * 같은 Idempotency-Key 로 다른 내용의 요청이 들어온 경우
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.springaimcpserver.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 요청마다 상관 ID 와 본문 로그 샘플링 여부를 MDC 에 넣습니다.
+ * 클라이언트가 보낸 X-Correlation-Id 가 있으면 그대로 사용하고, 응답 헤더로 돌려줍니다.
+ * 문서 생성 스케줄러는 접수 시점의 MDC 를 작업 스레드로 전달하므로 한 작업의 로그는 같은 ID 로 묶입니다.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+
+    // 최대 길이를 넘거나 허용하지 않는 문자가 있는 헤더 값은 새 ID 로 대체
+    private static final int MAX_CORRELATION_ID_LENGTH = 64;
+
+    // 프롬프트/응답 본문을 로그에 남길 작업의 비율 (0 ~ 1)
+    @Value("${app.logging.payload-sample-rate:0.01}")
+    private double payloadSampleRate;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String correlationId = resolveCorrelationId(request.getHeader(CORRELATION_ID_HEADER));
+
+        MDC.put(LogPayloads.CORRELATION_ID_KEY, correlationId);
+        MDC.put(LogPayloads.SAMPLED_KEY, sample(payloadSampleRate));
+        response.setHeader(CORRELATION_ID_HEADER, correlationId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(LogPayloads.CORRELATION_ID_KEY);
+            MDC.remove(LogPayloads.SAMPLED_KEY);
+        }
+    }
+
+    /**
+     * 클라이언트가 보낸 상관 ID 가 없거나 형식에 맞지 않으면 새 ID 를 발급합니다.
+     */
+    static String resolveCorrelationId(String header) {
+        if (header == null || header.length() > MAX_CORRELATION_ID_LENGTH || !header.matches("[A-Za-z0-9._-]+")) {
+            return UUID.randomUUID().toString();
+        }
+        return header;
+    }
+
+    /**
+     * 본문 로그 샘플링 여부를 정합니다.
+     *
+     * @return MDC 에 넣을 샘플링 여부 ("true" / "false")
+     */
+    static String sample(double payloadSampleRate) {
+        return String.valueOf(ThreadLocalRandom.current().nextDouble() < payloadSampleRate);
+    }
+}
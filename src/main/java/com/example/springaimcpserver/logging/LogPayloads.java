@@ -0,0 +1,95 @@
+package com.example.springaimcpserver.logging;
+
+import com.example.springaimcpserver.model.DocumentRequest;
+import org.slf4j.MDC;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 프롬프트, 모델 응답, 요청 본문처럼 큰 값을 로그에 남길 때 사용하는 도우미
+ * 샘플링된 작업에서만 앞부분을 그대로 남기고, 나머지 작업은 길이와 해시만 남겨 로그 I/O 를 줄입니다.
+ */
+public final class LogPayloads {
+
+    /** 상관 ID 를 담는 MDC 키 */
+    public static final String CORRELATION_ID_KEY = "correlationId";
+
+    /** 본문 로그 샘플링 여부를 담는 MDC 키 */
+    public static final String SAMPLED_KEY = "sampled";
+
+    // 샘플링된 작업에서 남길 최대 길이
+    private static final int SAMPLED_MAX_LENGTH = 2000;
+
+    // 요약에 남길 제목 최대 길이
+    private static final int TITLE_MAX_LENGTH = 80;
+
+    private LogPayloads() {
+    }
+
+    /**
+     * 현재 작업이 샘플링 대상이면 앞부분을, 아니면 길이와 해시를 반환합니다.
+     *
+     * @param payload 로그에 남길 값
+     * @return 로그용 문자열
+     */
+    public static String describe(String payload) {
+        if (payload == null) {
+            return "null";
+        }
+        return isSampled() ? truncate(payload, SAMPLED_MAX_LENGTH) : hash(payload);
+    }
+
+    /**
+     * 최대 길이를 넘는 부분을 잘라냅니다.
+     *
+     * @param payload   로그에 남길 값
+     * @param maxLength 최대 길이
+     * @return 잘라낸 문자열 (원래 길이 표시)
+     */
+    public static String truncate(String payload, int maxLength) {
+        if (payload == null || payload.length() <= maxLength) {
+            return payload;
+        }
+        return payload.substring(0, maxLength) + "...(" + payload.length() + " chars)";
+    }
+
+    /**
+     * 값 대신 길이와 SHA-256 앞 12자리를 반환합니다. 같은 값인지는 로그만으로 비교할 수 있습니다.
+     *
+     * @param payload 로그에 남길 값
+     * @return "[1234 chars, sha256:...]" 형식의 문자열
+     */
+    public static String hash(String payload) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(payload.getBytes(StandardCharsets.UTF_8));
+            return "[" + payload.length() + " chars, sha256:" + HexFormat.of().formatHex(digest, 0, 6) + "]";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 문서 생성 요청을 한 줄 요약으로 반환합니다. 본문(content)은 길이와 해시만 남깁니다.
+     *
+     * @param request 문서 생성 요청
+     * @return 요청 요약
+     */
+    public static String summarize(DocumentRequest request) {
+        return String.format("type=%s, title=%s, content=%s, sections=%d, options=%s",
+                request.getDocumentType(),
+                truncate(request.getTitle(), TITLE_MAX_LENGTH),
+                request.getContent() != null ? describe(request.getContent()) : "null",
+                request.getSections() != null ? request.getSections().size() : 0,
+                request.getAdditionalOptions() != null ? request.getAdditionalOptions().keySet() : "[]");
+    }
+
+    /**
+     * 현재 작업이 본문 로그 샘플링 대상인지 반환합니다.
+     */
+    public static boolean isSampled() {
+        return "true".equals(MDC.get(SAMPLED_KEY));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.springaimcpserver.logging;
+
+import io.micrometer.context.ContextRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * reactive 프로파일에서 요청마다 상관 ID 와 본문 로그 샘플링 여부를 Reactor Context 에 넣습니다.
+ * 요청이 여러 스레드를 오가므로 MDC 대신 Context 에 두고, 자동 컨텍스트 전달(spring.reactor.context-propagation=auto)이
+ * 연산자를 실행하는 스레드의 MDC 로 복원합니다. 따라서 컨트롤러와 작업 스케줄러 접수 시점의 로그도 같은 ID 로 묶입니다.
+ * 헤더 처리는 서블릿 스택의 {@link CorrelationIdFilter} 와 같습니다.
+ */
+@Component
+@Profile("reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReactiveCorrelationIdFilter implements WebFilter {
+
+    // 프롬프트/응답 본문을 로그에 남길 작업의 비율 (0 ~ 1)
+    @Value("${app.logging.payload-sample-rate:0.01}")
+    private double payloadSampleRate;
+
+    /**
+     * Context 의 상관 ID 와 샘플링 여부를 같은 키의 MDC 값으로 복원하도록 등록합니다.
+     */
+    @PostConstruct
+    public void registerMdcAccessors() {
+        for (String key : new String[]{LogPayloads.CORRELATION_ID_KEY, LogPayloads.SAMPLED_KEY}) {
+            ContextRegistry.getInstance().registerThreadLocalAccessor(key,
+                    () -> MDC.get(key),
+                    value -> MDC.put(key, value),
+                    () -> MDC.remove(key));
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String correlationId = CorrelationIdFilter.resolveCorrelationId(
+                exchange.getRequest().getHeaders().getFirst(CorrelationIdFilter.CORRELATION_ID_HEADER));
+        exchange.getResponse().getHeaders().set(CorrelationIdFilter.CORRELATION_ID_HEADER, correlationId);
+
+        return chain.filter(exchange)
+                .contextWrite(Context.of(
+                        LogPayloads.CORRELATION_ID_KEY, correlationId,
+                        LogPayloads.SAMPLED_KEY, CorrelationIdFilter.sample(payloadSampleRate)));
+    }
+}
@@ -0,0 +1,389 @@
+package com.example.springaimcpserver.mcp;
+
+import com.example.springaimcpserver.event.DocumentStageEvent;
+import com.example.springaimcpserver.model.DocumentRequest;
+import com.example.springaimcpserver.model.DocumentResponse;
+import com.example.springaimcpserver.service.DocumentGeneratorFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * MCP(Model Context Protocol) JSON-RPC 메시지를 처리하는 핸들러
+ * 엑셀/PPT 생성을 MCP 도구로 노출하며, 전송 방식(stdio, streamable HTTP)과 무관하게 동작합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class McpServerHandler {
+
+    public static final String PROTOCOL_VERSION = "2025-03-26";
+
+    public static final String TOOL_GENERATE_EXCEL = "generate_excel";
+    public static final String TOOL_GENERATE_POWERPOINT = "generate_powerpoint";
+    public static final String TOOL_GENERATE_CSV = "generate_csv";
+    public static final String TOOL_GET_DOCUMENT_STATUS = "get_document_status";
+
+    private static final int PARSE_ERROR = -32700;
+    private static final int INVALID_REQUEST = -32600;
+    private static final int METHOD_NOT_FOUND = -32601;
+    private static final int INVALID_PARAMS = -32602;
+    private static final int INTERNAL_ERROR = -32603;
+
+    private final DocumentGeneratorFactory documentGeneratorFactory;
+    private final ObjectMapper objectMapper;
+
+    @Value("${spring.application.name}")
+    private String serverName;
+
+    // 클러스터 모드에서 큐에 넣은 작업의 상태 조회 간격과 최대 대기 시간 (넘으면 PROCESSING 상태를 반환)
+    @Value("${app.mcp.queued-poll-interval:1s}")
+    private Duration queuedPollInterval;
+
+    @Value("${app.mcp.queued-wait-timeout:9m}")
+    private Duration queuedWaitTimeout;
+
+    // 문서 ID -> 진행 알림 전송 대상
+    private final Map<String, ProgressTarget> progressTargets = new ConcurrentHashMap<>();
+
+    // 도구 호출 스레드에서 생성 요청을 접수하는 동안의 알림 대상
+    // 접수(ACCEPTED) 이벤트는 호출 스레드에서 동기로 발행되므로, 이때 문서 ID 와 알림 대상을 연결함
+    private final ThreadLocal<PendingProgress> pendingProgress = new ThreadLocal<>();
+
+    /**
+     * JSON-RPC 메시지 하나를 처리합니다.
+     *
+     * @param session  메시지를 보낸 세션
+     * @param message  JSON-RPC 요청 또는 알림
+     * @param notifier 이 요청 처리 중 발생하는 서버 알림(진행률 등)을 보낼 대상 (nullable)
+     * @return JSON-RPC 응답 (알림이나 클라이언트 응답인 경우 null)
+     */
+    public CompletableFuture<ObjectNode> handle(McpSession session, JsonNode message, Consumer<ObjectNode> notifier) {
+        if (!message.isObject()) {
+            return CompletableFuture.completedFuture(error(null, INVALID_REQUEST, "Invalid Request"));
+        }
+
+        JsonNode id = message.get("id");
+        String method = message.path("method").asText(null);
+
+        if (method == null) {
+            // 서버 요청에 대한 클라이언트 응답은 사용하지 않음
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (id == null || id.isNull()) {
+            handleNotification(session, method);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        JsonNode params = message.path("params");
+
+        // 초기화 절차(initialize 응답 후 notifications/initialized)를 마치기 전에는 ping 만 허용
+        if (!session.isInitialized() && !"initialize".equals(method) && !"ping".equals(method)) {
+            return CompletableFuture.completedFuture(error(id, INVALID_REQUEST, "Session not initialized"));
+        }
+
+        try {
+            switch (method) {
+                case "initialize":
+                    return CompletableFuture.completedFuture(result(id, initialize(session, params)));
+                case "ping":
+                    return CompletableFuture.completedFuture(result(id, objectMapper.createObjectNode()));
+                case "tools/list":
+                    return CompletableFuture.completedFuture(result(id, listTools()));
+                case "tools/call":
+                    return callTool(params, notifier).thenApply(toolResult -> result(id, toolResult));
+                default:
+                    return CompletableFuture.completedFuture(error(id, METHOD_NOT_FOUND, "Method not found: " + method));
+            }
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(error(id, INVALID_PARAMS, e.getMessage()));
+        } catch (Exception e) {
+            log.error("MCP 요청 처리 중 오류 발생: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(error(id, INTERNAL_ERROR, e.getMessage()));
+        }
+    }
+
+    /**
+     * 파싱할 수 없는 메시지에 대한 JSON-RPC 오류 응답을 생성합니다.
+     */
+    public ObjectNode parseError(String message) {
+        return error(null, PARSE_ERROR, message);
+    }
+
+    /**
+     * 처리할 수 없는 요청에 대한 JSON-RPC 오류 응답을 생성합니다.
+     */
+    public ObjectNode invalidRequest(String message) {
+        return error(null, INVALID_REQUEST, message);
+    }
+
+    /**
+     * 문서 생성 단계 이벤트를 진행률 알림으로 전달합니다.
+     */
+    @EventListener
+    public void onDocumentStage(DocumentStageEvent event) {
+        PendingProgress pending = pendingProgress.get();
+        if (pending != null && pending.documentId == null && event.getStage() == DocumentStageEvent.Stage.ACCEPTED) {
+            pending.documentId = event.getDocumentId();
+            progressTargets.put(event.getDocumentId(), pending.target);
+        }
+
+        ProgressTarget target = progressTargets.get(event.getDocumentId());
+        if (target == null) {
+            return;
+        }
+
+        ObjectNode params = objectMapper.createObjectNode();
+        params.set("progressToken", target.progressToken());
+        params.put("progress", event.getStage().progress());
+        params.put("total", DocumentStageEvent.Stage.total());
+        params.put("message", event.getStage().name() + " " + event.getDocumentId());
+
+        ObjectNode notification = objectMapper.createObjectNode();
+        notification.put("jsonrpc", "2.0");
+        notification.put("method", "notifications/progress");
+        notification.set("params", params);
+
+        try {
+            target.notifier().accept(notification);
+        } catch (Exception e) {
+            log.debug("MCP 진행 알림 전송 실패: {}", e.getMessage());
+        }
+    }
+
+    private void handleNotification(McpSession session, String method) {
+        if ("notifications/initialized".equals(method)) {
+            if (session.getProtocolVersion() == null) {
+                log.debug("Ignoring initialized notification before initialize on session {}", session.getId());
+                return;
+            }
+            session.setInitialized(true);
+        } else {
+            log.debug("Ignoring MCP notification: {}", method);
+        }
+    }
+
+    private ObjectNode initialize(McpSession session, JsonNode params) {
+        session.setClientInfo(params.get("clientInfo"));
+        session.setProtocolVersion(PROTOCOL_VERSION);
+
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("protocolVersion", PROTOCOL_VERSION);
+        result.putObject("capabilities").putObject("tools").put("listChanged", false);
+
+        ObjectNode serverInfo = result.putObject("serverInfo");
+        serverInfo.put("name", serverName);
+        serverInfo.put("version", "0.0.1");
+
+        return result;
+    }
+
+    private ObjectNode listTools() {
+        ObjectNode result = objectMapper.createObjectNode();
+        ArrayNode tools = result.putArray("tools");
+
+        tools.add(tool(TOOL_GENERATE_EXCEL,
+                "AI로 엑셀(xlsx) 문서를 생성하고 완료된 문서 정보(다운로드 URL 포함)를 반환합니다.",
+                documentInputSchema()));
+        tools.add(tool(TOOL_GENERATE_POWERPOINT,
+                "AI로 PowerPoint(pptx) 프레젠테이션을 생성하고 완료된 문서 정보(다운로드 URL 포함)를 반환합니다.",
+                documentInputSchema()));
+        tools.add(tool(TOOL_GENERATE_CSV,
+                "AI로 대용량 표 데이터를 CSV/TSV 파일로 생성합니다. additionalOptions 의 format(csv|tsv), gzip, bom 으로 출력 형식을 지정합니다.",
+                documentInputSchema()));
+
+        ObjectNode statusSchema = objectMapper.createObjectNode();
+        statusSchema.put("type", "object");
+        statusSchema.putObject("properties").putObject("documentId").put("type", "string");
+        statusSchema.putArray("required").add("documentId");
+        tools.add(tool(TOOL_GET_DOCUMENT_STATUS, "문서 생성 상태를 조회합니다.", statusSchema));
+
+        return result;
+    }
+
+    private CompletableFuture<ObjectNode> callTool(JsonNode params, Consumer<ObjectNode> notifier) {
+        String name = params.path("name").asText("");
+        JsonNode arguments = params.path("arguments");
+        JsonNode progressToken = params.path("_meta").get("progressToken");
+
+        switch (name) {
+            case TOOL_GENERATE_EXCEL:
+                return generateDocument(DocumentRequest.DocumentType.EXCEL, arguments, progressToken, notifier);
+            case TOOL_GENERATE_POWERPOINT:
+                return generateDocument(DocumentRequest.DocumentType.POWERPOINT, arguments, progressToken, notifier);
+            case TOOL_GENERATE_CSV:
+                return generateDocument(DocumentRequest.DocumentType.CSV, arguments, progressToken, notifier);
+            case TOOL_GET_DOCUMENT_STATUS:
+                String documentId = requireText(arguments, "documentId");
+                DocumentResponse status = documentGeneratorFactory.findDocumentStatus(documentId)
+                        .orElseGet(() -> DocumentResponse.failed(documentId, "Unknown", "문서를 찾을 수 없습니다."));
+                return CompletableFuture.completedFuture(toolResult(status));
+            default:
+                throw new IllegalArgumentException("Unknown tool: " + name);
+        }
+    }
+
+    private CompletableFuture<ObjectNode> generateDocument(DocumentRequest.DocumentType documentType,
+                                                           JsonNode arguments, JsonNode progressToken,
+                                                           Consumer<ObjectNode> notifier) {
+        DocumentRequest request = DocumentRequest.builder()
+                .title(requireText(arguments, "title"))
+                .content(requireText(arguments, "content"))
+                .documentType(documentType)
+                .sections(arguments.has("sections")
+                        ? objectMapper.convertValue(arguments.get("sections"), new TypeReference<List<String>>() {})
+                        : new ArrayList<>())
+                .additionalOptions(arguments.has("additionalOptions")
+                        ? objectMapper.convertValue(arguments.get("additionalOptions"), new TypeReference<Map<String, Object>>() {})
+                        : null)
+                .build();
+
+        PendingProgress pending = progressToken != null && notifier != null
+                ? new PendingProgress(new ProgressTarget(progressToken, notifier))
+                : null;
+
+        CompletableFuture<DocumentResponse> future;
+        pendingProgress.set(pending);
+        try {
+            future = documentGeneratorFactory.getGenerator(documentType).generateDocument(request);
+        } finally {
+            pendingProgress.remove();
+        }
+
+        // 클러스터 모드에서는 작업을 큐에 넣고 바로 PROCESSING 으로 반환하므로, 다른 노드가 끝낼 때까지 상태 저장소를 조회
+        // 이 노드가 작업을 가져가면 단계 이벤트가 이 노드에서 발행되므로 기다리는 동안에도 진행 알림이 전달됨
+        long deadline = System.nanoTime() + queuedWaitTimeout.toNanos();
+        return future
+                .thenCompose(response -> awaitCompletion(response, deadline))
+                .handle((response, ex) -> {
+                    if (pending != null && pending.documentId != null) {
+                        progressTargets.remove(pending.documentId);
+                    }
+
+                    if (ex != null) {
+                        return errorToolResult(ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+                    }
+                    return toolResult(response);
+                });
+    }
+
+    /**
+     * 처리 중인 문서의 상태를 완료되거나 실패할 때까지(또는 제한 시간까지) 주기적으로 조회합니다.
+     * 조회 사이에는 스레드를 점유하지 않습니다.
+     */
+    private CompletableFuture<DocumentResponse> awaitCompletion(DocumentResponse response, long deadline) {
+        if (response.getStatus() != DocumentResponse.DocumentStatus.PROCESSING || System.nanoTime() - deadline >= 0) {
+            return CompletableFuture.completedFuture(response);
+        }
+
+        Executor delayed = CompletableFuture.delayedExecutor(queuedPollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        return CompletableFuture
+                .supplyAsync(() -> documentGeneratorFactory.findDocumentStatus(response.getId()).orElse(response), delayed)
+                .thenCompose(current -> awaitCompletion(current, deadline));
+    }
+
+    private ObjectNode toolResult(DocumentResponse response) {
+        try {
+            ObjectNode result = objectMapper.createObjectNode();
+            result.putArray("content").addObject()
+                    .put("type", "text")
+                    .put("text", objectMapper.writeValueAsString(response));
+            result.put("isError", response.getStatus() == DocumentResponse.DocumentStatus.FAILED);
+            return result;
+        } catch (JsonProcessingException e) {
+            return errorToolResult(e.getMessage());
+        }
+    }
+
+    private ObjectNode errorToolResult(String message) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.putArray("content").addObject()
+                .put("type", "text")
+                .put("text", message);
+        result.put("isError", true);
+        return result;
+    }
+
+    private ObjectNode tool(String name, String description, ObjectNode inputSchema) {
+        ObjectNode tool = objectMapper.createObjectNode();
+        tool.put("name", name);
+        tool.put("description", description);
+        tool.set("inputSchema", inputSchema);
+        return tool;
+    }
+
+    private ObjectNode documentInputSchema() {
+        ObjectNode schema = objectMapper.createObjectNode();
+        schema.put("type", "object");
+
+        ObjectNode properties = schema.putObject("properties");
+        properties.putObject("title").put("type", "string").put("description", "문서 제목");
+        properties.putObject("content").put("type", "string").put("description", "문서 내용 설명");
+        properties.putObject("sections").put("type", "array").putObject("items").put("type", "string");
+        properties.putObject("additionalOptions").put("type", "object");
+
+        schema.putArray("required").add("title").add("content");
+        return schema;
+    }
+
+    private String requireText(JsonNode arguments, String field) {
+        String value = arguments.path(field).asText("");
+        if (value.isBlank()) {
+            throw new IllegalArgumentException(field + " 값은 필수 입력값입니다.");
+        }
+        return value;
+    }
+
+    private ObjectNode result(JsonNode id, JsonNode result) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", id);
+        response.set("result", result);
+        return response;
+    }
+
+    private ObjectNode error(JsonNode id, int code, String message) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", id);
+        ObjectNode error = response.putObject("error");
+        error.put("code", code);
+        error.put("message", message != null ? message : "Internal error");
+        return response;
+    }
+
+    private record ProgressTarget(JsonNode progressToken, Consumer<ObjectNode> notifier) {
+    }
+
+    /**
+     * 접수 전이라 문서 ID 를 아직 모르는 진행 알림 대상
+     */
+    private static final class PendingProgress {
+
+        private final ProgressTarget target;
+        private volatile String documentId;
+
+        private PendingProgress(ProgressTarget target) {
+            this.target = target;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.springaimcpserver.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * MCP 클라이언트(에이전트) 세션
+ * 여러 세션이 하나의 문서 생성 엔진을 공유합니다.
+ */
+@Getter
+public class McpSession {
+
+    private final String id;
+    private final Instant createdAt;
+    private volatile Instant lastAccessedAt;
+
+    @Setter
+    private volatile JsonNode clientInfo;
+
+    // initialize 요청에서 합의한 프로토콜 버전 (initialize 전에는 null)
+    @Setter
+    private volatile String protocolVersion;
+
+    // notifications/initialized 를 받은 뒤에만 도구 요청을 처리
+    @Setter
+    private volatile boolean initialized;
+
+    public McpSession(String id) {
+        this.id = id;
+        this.createdAt = Instant.now();
+        this.lastAccessedAt = this.createdAt;
+    }
+
+    /**
+     * 마지막 사용 시각을 갱신합니다.
+     */
+    public void touch() {
+        this.lastAccessedAt = Instant.now();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.springaimcpserver.mcp;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MCP 세션 저장소
+ */
+@Slf4j
+@Component
+public class McpSessionRegistry {
+
+    @Value("${app.mcp.session-timeout:30m}")
+    private Duration sessionTimeout;
+
+    private final Map<String, McpSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 새 세션을 생성합니다. 생성 시 유휴 시간이 지난 세션을 정리합니다.
+     *
+     * @return 생성된 세션
+     */
+    public McpSession create() {
+        evictIdleSessions();
+
+        McpSession session = new McpSession(UUID.randomUUID().toString());
+        sessions.put(session.getId(), session);
+        log.debug("MCP session created: {} (active {})", session.getId(), sessions.size());
+        return session;
+    }
+
+    /**
+     * 세션을 조회하고 마지막 사용 시각을 갱신합니다.
+     *
+     * @param sessionId 세션 ID
+     * @return 세션 (없으면 empty)
+     */
+    public Optional<McpSession> find(String sessionId) {
+        McpSession session = sessions.get(sessionId);
+        if (session != null) {
+            session.touch();
+        }
+        return Optional.ofNullable(session);
+    }
+
+    /**
+     * 세션을 종료합니다.
+     *
+     * @param sessionId 세션 ID
+     * @return 세션이 존재했는지 여부
+     */
+    public boolean remove(String sessionId) {
+        return sessions.remove(sessionId) != null;
+    }
+
+    private void evictIdleSessions() {
+        Instant threshold = Instant.now().minus(sessionTimeout);
+        sessions.values().removeIf(session -> session.getLastAccessedAt().isBefore(threshold));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.springaimcpserver.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * MCP stdio 전송
+ * 표준 입력에서 줄 단위 JSON-RPC 메시지를 읽고 표준 출력으로 응답합니다.
+ * 요청은 비동기로 처리되므로 하나의 프로세스에서 여러 도구 호출이 동시에 진행됩니다.
+ * 입력 루프는 별도 스레드에서 실행하여 애플리케이션 시작(ApplicationReadyEvent 처리)을 막지 않고,
+ * 입력이 끝나면 진행 중인 호출을 마친 뒤 애플리케이션을 종료합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.mcp.stdio.enabled", havingValue = "true")
+public class McpStdioTransport implements CommandLineRunner {
+
+    private final McpServerHandler mcpServerHandler;
+    private final McpSessionRegistry mcpSessionRegistry;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext applicationContext;
+
+    private final PrintStream out = System.out;
+
+    @Override
+    public void run(String... args) {
+        Thread thread = new Thread(this::serve, "mcp-stdio");
+        thread.start();
+    }
+
+    private void serve() {
+        try {
+            readMessages();
+        } catch (IOException e) {
+            log.error("MCP stdio 입력 처리 중 오류 발생: {}", e.getMessage(), e);
+        } finally {
+            SpringApplication.exit(applicationContext);
+        }
+    }
+
+    private void readMessages() throws IOException {
+        McpSession session = mcpSessionRegistry.create();
+        List<CompletableFuture<Void>> pending = new CopyOnWriteArrayList<>();
+
+        log.info("MCP stdio transport started (session {})", session.getId());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                JsonNode message;
+                try {
+                    message = objectMapper.readTree(line);
+                } catch (IOException e) {
+                    write(mcpServerHandler.parseError(e.getMessage()));
+                    continue;
+                }
+
+                CompletableFuture<Void> future = mcpServerHandler.handle(session, message, this::write)
+                        .thenAccept(response -> {
+                            if (response != null) {
+                                write(response);
+                            }
+                        });
+                pending.add(future);
+                future.whenComplete((ignored, ex) -> pending.remove(future));
+            }
+        }
+
+        // 입력이 끝나면 진행 중인 도구 호출을 마무리한 뒤 종료
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        mcpSessionRegistry.remove(session.getId());
+        log.info("MCP stdio transport closed");
+    }
+
+    private void write(JsonNode message) {
+        try {
+            String json = objectMapper.writeValueAsString(message);
+            synchronized (out) {
+                out.println(json);
+                out.flush();
+            }
+        } catch (IOException e) {
+            log.error("MCP stdio 메시지 전송 실패: {}", e.getMessage(), e);
+        }
+    }
+}
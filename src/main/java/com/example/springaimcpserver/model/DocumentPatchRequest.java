@@ -0,0 +1,31 @@
+package com.example.springaimcpserver.model;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 완료된 문서의 일부(시트 또는 슬라이드)만 다시 생성하는 요청
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentPatchRequest {
+
+    @NotBlank(message = "수정 지시는 필수 입력값입니다.")
+    private String instruction;
+
+    // 엑셀: 다시 생성할 시트 이름 (없는 이름이면 새 시트 추가)
+    @Builder.Default
+    private List<String> sheets = new ArrayList<>();
+
+    // PPT: 다시 생성할 슬라이드 번호 (1번은 제목 슬라이드이므로 2번부터)
+    @Builder.Default
+    private List<Integer> slides = new ArrayList<>();
+}
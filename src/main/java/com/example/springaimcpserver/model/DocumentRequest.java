@@ -36,6 +36,7 @@ public class DocumentRequest {
     
     public enum DocumentType {
         EXCEL, 
-        POWERPOINT
+        POWERPOINT,
+        CSV
     }
 }
@@ -17,9 +17,12 @@ public class DocumentResponse {
 
     private String id;
     private String title;
+    // 작업별 파일 이름 (다운로드 시 파일 이름으로만 사용하며, 파일은 contentHash 로 저장)
     private String fileName;
     private String fileUrl;
     private String downloadUrl;
+    // 파일 내용의 SHA-256 해시 (같은 내용의 문서는 하나의 파일을 공유)
+    private String contentHash;
     private DocumentStatus status;
     private LocalDateTime createdAt;
     private LocalDateTime completedAt;
@@ -40,13 +43,15 @@ public class DocumentResponse {
                 .build();
     }
 
-    public static DocumentResponse completed(String id, String title, String fileName, String fileUrl, String downloadUrl) {
+    public static DocumentResponse completed(String id, String title, String fileName, String contentHash) {
+        String downloadUrl = "/api/documents/" + id + "/download";
         return DocumentResponse.builder()
                 .id(id)
                 .title(title)
                 .fileName(fileName)
-                .fileUrl(fileUrl)
+                .fileUrl(downloadUrl)
                 .downloadUrl(downloadUrl)
+                .contentHash(contentHash)
                 .status(DocumentStatus.COMPLETED)
                 .createdAt(LocalDateTime.now())
                 .completedAt(LocalDateTime.now())
@@ -41,7 +41,19 @@ public interface AiService {
      * @param content   엑셀 내용 설명
      * @return          시트별 데이터가 담긴 맵
      */
-    Map<String, List<List<String>>> generateExcelStructure(String title, String content);
+    default Map<String, List<List<String>>> generateExcelStructure(String title, String content) {
+        return generateExcelStructure(title, content, null);
+    }
+
+    /**
+     * 제목과 내용, 요청 옵션을 바탕으로 엑셀 데이터 구조를 생성합니다.
+     *
+     * @param title     엑셀 문서 제목
+     * @param content   엑셀 내용 설명
+     * @param options   요청의 추가 옵션 (모델 선택 등에 사용, nullable)
+     * @return          시트별 데이터가 담긴 맵
+     */
+    Map<String, List<List<String>>> generateExcelStructure(String title, String content, Map<String, Object> options);
 
     /**
      * 제목과 내용을 바탕으로 PPT 슬라이드 구조를 생성합니다.
@@ -50,5 +62,64 @@ public interface AiService {
      * @param content   PPT 내용 설명
      * @return          슬라이드별 내용이 담긴 맵
      */
-    List<Map<String, String>> generatePptStructure(String title, String content);
+    default List<Map<String, String>> generatePptStructure(String title, String content) {
+        return generatePptStructure(title, content, null);
+    }
+
+    /**
+     * 제목과 내용, 요청 옵션을 바탕으로 PPT 슬라이드 구조를 생성합니다.
+     *
+     * @param title     PPT 제목
+     * @param content   PPT 내용 설명
+     * @param options   요청의 추가 옵션 (모델 선택 등에 사용, nullable)
+     * @return          슬라이드별 내용이 담긴 맵
+     */
+    List<Map<String, String>> generatePptStructure(String title, String content, Map<String, Object> options);
+
+    /**
+     * 제목과 내용, 요청 옵션을 바탕으로 CSV/TSV 로 내보낼 단일 표 데이터를 생성합니다.
+     *
+     * @param title     문서 제목
+     * @param content   표 내용 설명
+     * @param options   요청의 추가 옵션 (모델 선택 등에 사용, nullable)
+     * @return          헤더를 포함한 행 데이터
+     */
+    List<List<String>> generateTable(String title, String content, Map<String, Object> options);
+
+    /**
+     * 기존 표 데이터와 수정 지시를 바탕으로 표 전체를 다시 생성합니다.
+     *
+     * @param title       문서 제목
+     * @param currentRows 현재 표 데이터
+     * @param instruction 수정 지시
+     * @param options     요청의 추가 옵션 (모델 선택 등에 사용, nullable)
+     * @return            헤더를 포함한 행 데이터
+     */
+    List<List<String>> regenerateTable(String title, List<List<String>> currentRows,
+                                       String instruction, Map<String, Object> options);
+
+    /**
+     * 기존 시트 데이터와 수정 지시를 바탕으로 한 시트의 데이터만 다시 생성합니다.
+     *
+     * @param title       엑셀 문서 제목
+     * @param sheetName   시트 이름
+     * @param currentRows 현재 시트 데이터 (새 시트이면 빈 목록)
+     * @param instruction 수정 지시
+     * @param options     요청의 추가 옵션 (모델 선택 등에 사용, nullable)
+     * @return            헤더를 포함한 시트 데이터
+     */
+    List<List<String>> regenerateExcelSheet(String title, String sheetName, List<List<String>> currentRows,
+                                            String instruction, Map<String, Object> options);
+
+    /**
+     * 기존 슬라이드 내용과 수정 지시를 바탕으로 한 슬라이드의 내용만 다시 생성합니다.
+     *
+     * @param title        PPT 제목
+     * @param currentSlide 현재 슬라이드 내용 (title, content, notes)
+     * @param instruction  수정 지시
+     * @param options      요청의 추가 옵션 (모델 선택 등에 사용, nullable)
+     * @return             슬라이드 내용
+     */
+    Map<String, String> regeneratePptSlide(String title, Map<String, String> currentSlide,
+                                           String instruction, Map<String, Object> options);
 }
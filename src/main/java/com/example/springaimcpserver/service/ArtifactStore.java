@@ -0,0 +1,321 @@
+package com.example.springaimcpserver.service;
+
+import com.example.springaimcpserver.model.DocumentResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 생성된 문서 파일을 내용 해시(SHA-256)로 한 번만 저장하는 저장소
+ * 기록하는 동안 해시를 계산하고 temp-dir/cas/{해시} 로 옮기며, 같은 내용이 이미 있으면 새로 쓴 파일은 버립니다.
+ * 작업별 파일 이름은 {@link DocumentResponse} 의 메타데이터로만 남고, 다운로드는 문서 ID 로 해시를 찾아 전송합니다.
+ * 해시별로 참조하는 작업 수를 세어 수정으로 더 이상 참조되지 않는 파일을 삭제합니다.
+ * 참조 수는 노드별이므로, 이 노드의 작업이 참조하지 않으면서 마지막으로 저장(또는 중복 저장)된 뒤 보관 기간
+ * (app.document.artifacts.retention)이 지난 파일은 주기적으로 삭제하여 재시작 후 남은 파일이나 공유 볼륨을 쓰는
+ * 클러스터 모드의 디스크 사용량을 제한합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArtifactStore {
+
+    private static final String ARTIFACT_DIR = "cas";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    // 이보다 오래된 임시 파일만 중단된 기록으로 보고 삭제 (공유 볼륨에서 다른 노드가 기록 중인 파일은 남김)
+    private static final Duration STALE_TEMP_AGE = Duration.ofHours(1);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.document.temp-dir}")
+    private String tempDir;
+
+    // 참조가 없어진 파일 삭제 여부 (참조 수는 노드별이므로 공유 볼륨을 쓰는 클러스터 모드에서는 끔)
+    @Value("${app.document.artifacts.reclaim:true}")
+    private boolean reclaim;
+
+    @Value("${app.document.artifacts.retention:7d}")
+    private Duration retention;
+
+    private Path directory;
+
+    // 내용 해시별 참조하는 작업 수 (재시작 후 다시 참조되지 않은 파일은 삭제하지 않고 유지)
+    private final Map<String, Integer> references = new ConcurrentHashMap<>();
+
+    private Counter storedCounter;
+    private Counter deduplicatedCounter;
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = Paths.get(tempDir, ARTIFACT_DIR);
+        Files.createDirectories(directory);
+
+        // 기록 중 중단되어 남은 임시 파일 정리
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + TEMP_SUFFIX)) {
+            for (Path file : files) {
+                if (isOlderThan(file, STALE_TEMP_AGE)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        storedCounter = Counter.builder("documents.artifacts.stored")
+                .description("새로 저장된 고유 문서 파일 수")
+                .register(meterRegistry);
+        deduplicatedCounter = Counter.builder("documents.artifacts.deduplicated")
+                .description("같은 내용이 이미 있어 저장을 생략한 문서 파일 수")
+                .register(meterRegistry);
+        Gauge.builder("documents.artifacts.referenced", references, Map::size)
+                .description("작업이 참조 중인 고유 문서 파일 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 문서를 기록하면서 내용 해시를 계산하고, 해시 주소로 저장한 뒤 참조 수를 하나 늘립니다.
+     *
+     * @param fileName 작업별 파일 이름 (메타데이터로만 사용)
+     * @param writer   문서 기록 함수
+     * @return 저장된 파일 정보
+     * @throws IOException 기록 중 오류 발생 시
+     */
+    public Artifact store(String fileName, DocumentWriter writer) throws IOException {
+        return storeFromChannel(fileName, channel -> {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE);
+            writer.writeTo(out);
+            out.flush();
+        });
+    }
+
+    /**
+     * 파일 채널에 직접 기록하면서 내용 해시를 계산하고, 해시 주소로 저장한 뒤 참조 수를 하나 늘립니다.
+     * 같은 내용이 이미 저장되어 있으면 새로 기록한 임시 파일을 삭제하고 기존 파일을 공유합니다.
+     * 임시 파일은 곧바로 삭제되므로 중복 내용은 대부분 페이지 캐시에서 디스크로 내려가지 않습니다.
+     *
+     * @param fileName 작업별 파일 이름 (메타데이터로만 사용)
+     * @param writer   채널 기록 함수 (채널은 닫지 않음)
+     * @return 저장된 파일 정보
+     * @throws IOException 기록 중 오류 발생 시
+     */
+    public Artifact storeFromChannel(String fileName, ChannelWriter writer) throws IOException {
+        MessageDigest digest = newDigest();
+        Path temp = Files.createTempFile(directory, "artifact-", TEMP_SUFFIX);
+        try {
+            long size;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writer.writeTo(new DigestChannel(channel, digest));
+                size = channel.size();
+            }
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+
+            // 같은 해시의 삭제(release)와 겹치지 않도록 해시별로 잠근 상태에서 파일을 옮기고 참조를 늘림
+            boolean[] deduplicated = new boolean[1];
+            references.compute(contentHash, (hash, count) -> {
+                Path target = directory.resolve(hash);
+                try {
+                    if (Files.exists(target)) {
+                        Files.delete(temp);
+                        // 보관 기간은 마지막으로 저장된 시점부터 계산
+                        Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                        deduplicated[0] = true;
+                    } else {
+                        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count == null ? 1 : count + 1;
+            });
+
+            if (deduplicated[0]) {
+                deduplicatedCounter.increment();
+                log.info("Artifact {} for {} already stored, reusing ({} bytes)", contentHash, fileName, size);
+            } else {
+                storedCounter.increment();
+            }
+            return new Artifact(fileName, contentHash, size, deduplicated[0]);
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 작업의 참조를 하나 줄이고, 참조가 없어진 파일을 삭제합니다.
+     * 이 노드에서 참조를 센 적이 없는 해시(재시작 전 저장분 등)는 다른 작업이 참조할 수 있으므로 그대로 둡니다.
+     *
+     * @param contentHash 내용 해시 (null 이면 무시)
+     */
+    public void release(String contentHash) {
+        if (contentHash == null) {
+            return;
+        }
+
+        references.computeIfPresent(contentHash, (hash, count) -> {
+            if (count > 1) {
+                return count - 1;
+            }
+            if (reclaim) {
+                try {
+                    Files.deleteIfExists(directory.resolve(hash));
+                    log.debug("Deleted unreferenced artifact {}", hash);
+                } catch (IOException e) {
+                    log.warn("Failed to delete artifact {}: {}", hash, e.getMessage());
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 문서 상태의 파일 경로를 찾습니다.
+     * 내용 해시가 없는 문서(이전 버전에서 생성된 문서)는 temp-dir 의 파일 이름으로 찾습니다.
+     *
+     * @param response 완료된 문서 상태
+     * @return 파일 경로
+     */
+    public Path resolve(DocumentResponse response) {
+        if (response.getContentHash() != null) {
+            return directory.resolve(response.getContentHash());
+        }
+        return Paths.get(tempDir, response.getFileName());
+    }
+
+    /**
+     * 보관 기간이 지난 파일을 삭제합니다.
+     * 저장 경로에서 디렉터리를 훑지 않도록 스케줄러 스레드에서 주기적으로 실행하며,
+     * 이 노드의 작업이 참조 중인 파일은 완료된 문서의 다운로드와 부분 수정에 쓰이므로 기간과 관계없이 남깁니다.
+     */
+    @Scheduled(fixedDelay = 10, initialDelay = 10, timeUnit = TimeUnit.MINUTES)
+    public void sweepExpired() {
+        int[] deleted = new int[1];
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String hash = file.getFileName().toString();
+                if (hash.endsWith(TEMP_SUFFIX)) {
+                    continue;
+                }
+                // 같은 해시의 저장과 겹치지 않도록 해시별로 잠근 상태에서 참조와 기간을 다시 확인하고 삭제
+                references.compute(hash, (key, count) -> {
+                    if (count != null) {
+                        return count;
+                    }
+                    try {
+                        if (isOlderThan(file, retention) && Files.deleteIfExists(file)) {
+                            deleted[0]++;
+                        }
+                    } catch (IOException e) {
+                        log.warn("Failed to delete expired artifact {}: {}", key, e.getMessage());
+                    }
+                    return null;
+                });
+            }
+        } catch (IOException e) {
+            log.warn("Failed to sweep artifacts in {}: {}", directory, e.getMessage());
+        }
+        if (deleted[0] > 0) {
+            log.info("Deleted {} unreferenced artifacts not stored for {}", deleted[0], retention);
+        }
+    }
+
+    private static boolean isOlderThan(Path file, Duration age) throws IOException {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(Instant.now().minus(age));
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 파일 채널에 문서를 기록하는 함수형 인터페이스
+     */
+    @FunctionalInterface
+    public interface ChannelWriter {
+
+        /**
+         * 문서를 채널에 기록합니다.
+         *
+         * @param channel 출력 채널
+         * @throws IOException 기록 중 오류 발생 시
+         */
+        void writeTo(WritableByteChannel channel) throws IOException;
+    }
+
+    /**
+     * 기록한 바이트로 해시를 갱신하는 채널
+     * direct 버퍼도 복사 없이 해시에 반영합니다.
+     */
+    private record DigestChannel(FileChannel channel, MessageDigest digest) implements WritableByteChannel {
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            ByteBuffer written = src.duplicate();
+            int count = channel.write(src);
+            written.limit(written.position() + count);
+            digest.update(written);
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * 저장된 문서 파일 정보
+     *
+     * @param fileName     작업별 파일 이름
+     * @param contentHash  내용 해시 (SHA-256, 16진수)
+     * @param size         파일 크기 (bytes)
+     * @param deduplicated 같은 내용이 이미 있어 기존 파일을 공유했는지 여부
+     */
+    public record Artifact(String fileName, String contentHash, long size, boolean deduplicated) {
+    }
+}
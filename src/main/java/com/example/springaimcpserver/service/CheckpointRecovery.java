@@ -0,0 +1,57 @@
+package com.example.springaimcpserver.service;
+
+import com.example.springaimcpserver.model.DocumentRequest;
+import com.example.springaimcpserver.model.DocumentResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 시작 시 남아 있는 체크포인트를 찾아, 이전 프로세스에서 렌더링 중 중단된 작업을 모델 호출 없이 다시 렌더링합니다.
+ * 클러스터 모드에서는 임대가 만료된 작업을 다른 노드가 가져가 같은 체크포인트로 이어서 처리하므로 검사하지 않습니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CheckpointRecovery {
+
+    private final CheckpointStore checkpointStore;
+    private final DocumentStatusRegistry statusRegistry;
+    private final DocumentGeneratorFactory documentGeneratorFactory;
+    private final Optional<DocumentJobQueue> jobQueue;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if (jobQueue.isPresent()) {
+            return;
+        }
+
+        List<CheckpointStore.Checkpoint> checkpoints = checkpointStore.findAll();
+        if (checkpoints.isEmpty()) {
+            return;
+        }
+
+        log.info("Recovering {} interrupted documents from checkpoints", checkpoints.size());
+        for (CheckpointStore.Checkpoint checkpoint : checkpoints) {
+            String documentId = checkpoint.documentId();
+            DocumentRequest request = checkpoint.request();
+
+            // 재시작으로 사라진 상태를 다시 등록하여 기존 문서 ID 로 상태 조회가 가능하도록 함
+            statusRegistry.save(request.getDocumentType(), DocumentResponse.processing(documentId, request.getTitle()));
+            documentGeneratorFactory.getGenerator(request.getDocumentType())
+                    .runQueuedJob(documentId, request)
+                    .whenComplete((response, ex) -> {
+                        if (ex != null) {
+                            log.warn("Failed to recover document {}: {}", documentId, ex.getMessage());
+                        } else {
+                            log.info("Recovered document {} ({})", documentId, response.getStatus());
+                        }
+                    });
+        }
+    }
+}
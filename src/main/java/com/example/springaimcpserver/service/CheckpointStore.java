@@ -0,0 +1,158 @@
+package com.example.springaimcpserver.service;
+
+import com.example.springaimcpserver.model.DocumentRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 문서 생성 작업의 체크포인트 저장소
+ * 모델이 생성한 구조화된 출력을 렌더링 전에 파일로 남겨, 렌더링 중 프로세스가 중단되어도
+ * 모델을 다시 호출하지 않고 같은 출력으로 렌더링을 이어갈 수 있도록 합니다.
+ * 체크포인트는 temp-dir/checkpoints/{documentId}.json 에 저장하며, 작업이 끝나면 삭제합니다.
+ * 작업 접수 시에는 모델 출력 없이 요청만 저장하므로, 종료로 시작하지 못한 작업도 재시작 후 다시 실행됩니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CheckpointStore {
+
+    private static final String CHECKPOINT_DIR = "checkpoints";
+    private static final String EXTENSION = ".json";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.document.temp-dir}")
+    private String tempDir;
+
+    @Value("${app.checkpoint.enabled:true}")
+    private boolean enabled;
+
+    private Path directory;
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = Paths.get(tempDir, CHECKPOINT_DIR);
+        if (enabled) {
+            Files.createDirectories(directory);
+        }
+    }
+
+    /**
+     * 작업의 요청과 모델 출력을 저장합니다. 임시 파일에 기록한 뒤 이동하므로 중단되어도 반쯤 쓰인 체크포인트는 남지 않습니다.
+     * 저장에 실패해도 작업은 계속 진행합니다.
+     *
+     * @param documentId 문서 ID
+     * @param request    문서 생성 요청
+     * @param structure  검증된 모델 출력 (접수 시에는 null)
+     */
+    public void save(String documentId, DocumentRequest request, Object structure) {
+        if (!enabled) {
+            return;
+        }
+
+        Path target = pathOf(documentId);
+        Path temp = directory.resolve(documentId + EXTENSION + ".tmp");
+        try {
+            JsonNode tree = structure == null ? NullNode.getInstance() : objectMapper.valueToTree(structure);
+            Checkpoint checkpoint = new Checkpoint(documentId, request, tree);
+            Files.write(temp, objectMapper.writeValueAsBytes(checkpoint));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write checkpoint for {}: {}", documentId, e.getMessage());
+        }
+    }
+
+    /**
+     * 저장된 모델 출력을 조회합니다.
+     *
+     * @param documentId 문서 ID
+     * @param type       모델 출력 타입
+     * @return 모델 출력 (체크포인트가 없거나, 접수 시점의 체크포인트이거나, 읽을 수 없으면 empty)
+     */
+    public <T> Optional<T> findStructure(String documentId, TypeReference<T> type) {
+        return read(pathOf(documentId))
+                .map(Checkpoint::structure)
+                .filter(structure -> !structure.isNull())
+                .map(structure -> objectMapper.convertValue(structure, type));
+    }
+
+    /**
+     * 남아 있는 모든 체크포인트를 조회합니다. 읽을 수 없는 파일은 건너뜁니다.
+     *
+     * @return 체크포인트 목록
+     */
+    public List<Checkpoint> findAll() {
+        List<Checkpoint> checkpoints = new ArrayList<>();
+        if (!enabled || !Files.isDirectory(directory)) {
+            return checkpoints;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                read(file).ifPresent(checkpoints::add);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list checkpoints in {}: {}", directory, e.getMessage());
+        }
+        return checkpoints;
+    }
+
+    /**
+     * 체크포인트를 삭제합니다.
+     *
+     * @param documentId 문서 ID
+     */
+    public void delete(String documentId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(pathOf(documentId));
+        } catch (IOException e) {
+            log.warn("Failed to delete checkpoint for {}: {}", documentId, e.getMessage());
+        }
+    }
+
+    private Optional<Checkpoint> read(Path file) {
+        if (!enabled || !Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(file.toFile(), Checkpoint.class));
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable checkpoint {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Path pathOf(String documentId) {
+        return directory.resolve(documentId + EXTENSION);
+    }
+
+    /**
+     * 체크포인트 파일 내용
+     *
+     * @param documentId 문서 ID
+     * @param request    문서 생성 요청
+     * @param structure  모델 출력
+     */
+    public record Checkpoint(String documentId, DocumentRequest request, JsonNode structure) {
+    }
+}
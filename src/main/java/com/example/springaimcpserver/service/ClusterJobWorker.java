@@ -0,0 +1,129 @@
+package com.example.springaimcpserver.service;
+
+import com.example.springaimcpserver.logging.LogPayloads;
+import com.example.springaimcpserver.model.DocumentRequest;
+import com.example.springaimcpserver.model.DocumentResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 클러스터 모드에서 공유 작업 큐의 작업을 임대하여 이 노드의 스케줄러로 실행하는 워커
+ * 실행 중인 작업의 임대를 주기적으로 연장하며, 노드가 중단되면 임대가 만료되어 다른 노드가 작업을 이어받습니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cluster.enabled", havingValue = "true")
+public class ClusterJobWorker {
+
+    private final DocumentJobQueue jobQueue;
+    private final DocumentStatusRegistry statusRegistry;
+    private final DocumentGeneratorFactory documentGeneratorFactory;
+
+    @Value("${app.cluster.node-id:}")
+    private String nodeId;
+
+    // 이 노드가 동시에 임대할 최대 작업 수
+    @Value("${app.cluster.max-in-flight:8}")
+    private int maxInFlight;
+
+    @Value("${app.cluster.lease:2m}")
+    private Duration lease;
+
+    // 이 횟수를 넘게 임대된 작업(매번 노드가 중단된 작업)은 실패로 처리
+    @Value("${app.cluster.max-attempts:3}")
+    private int maxAttempts;
+
+    private final Map<String, CompletableFuture<DocumentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+        log.info("Cluster job worker started on node {} (max in flight {}, lease {})", nodeId, maxInFlight, lease);
+    }
+
+    /**
+     * 여유 용량만큼 작업을 임대하여 실행합니다.
+     */
+    @Scheduled(fixedDelayString = "${app.cluster.poll-interval-ms:1000}")
+    public void claimJobs() {
+        int capacity = maxInFlight - inFlight.size();
+        if (capacity <= 0) {
+            return;
+        }
+
+        for (DocumentJobQueue.ClaimedJob job : jobQueue.claim(nodeId, capacity, lease)) {
+            String documentId = job.documentId();
+            DocumentRequest request = job.request();
+
+            if (request == null) {
+                // 요청을 읽을 수 없는 작업은 다시 시도해도 실패하므로 큐에서 제거하고 실패로 기록
+                markUnreadable(documentId);
+                jobQueue.complete(documentId, nodeId);
+                continue;
+            }
+
+            if (job.attempts() > maxAttempts) {
+                log.warn("Job {} exceeded {} attempts, marking as failed", documentId, maxAttempts);
+                statusRegistry.save(request.getDocumentType(), DocumentResponse.failed(documentId, request.getTitle(),
+                        String.format("작업이 %d회 시도 후에도 완료되지 않았습니다.", maxAttempts)));
+                jobQueue.complete(documentId, nodeId);
+                continue;
+            }
+
+            // 다른 노드에서 접수된 작업은 문서 ID 를 상관 ID 로 사용
+            CompletableFuture<DocumentResponse> future;
+            MDC.put(LogPayloads.CORRELATION_ID_KEY, documentId);
+            try {
+                future = documentGeneratorFactory
+                        .getGenerator(request.getDocumentType())
+                        .runQueuedJob(documentId, request);
+            } finally {
+                MDC.remove(LogPayloads.CORRELATION_ID_KEY);
+            }
+            inFlight.put(documentId, future);
+
+            future.whenComplete((response, ex) -> {
+                inFlight.remove(documentId);
+                Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+                if (cause instanceof RejectedExecutionException) {
+                    // 이 노드의 대기열이 가득 찬 경우 다른 노드가 가져갈 수 있도록 반납
+                    jobQueue.release(documentId, nodeId);
+                } else {
+                    jobQueue.complete(documentId, nodeId);
+                }
+            });
+        }
+    }
+
+    private void markUnreadable(String documentId) {
+        for (DocumentRequest.DocumentType documentType : DocumentRequest.DocumentType.values()) {
+            statusRegistry.find(documentType, documentId).ifPresent(status -> statusRegistry.save(documentType,
+                    DocumentResponse.failed(documentId, status.getTitle(), "작업 요청을 읽을 수 없습니다.")));
+        }
+    }
+
+    /**
+     * 실행 중인 작업의 임대를 연장합니다.
+     */
+    @Scheduled(fixedDelayString = "${app.cluster.lease-renew-interval-ms:30000}")
+    public void renewLeases() {
+        inFlight.keySet().forEach(documentId -> jobQueue.renew(documentId, nodeId, lease));
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.springaimcpserver.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 프롬프트 크기 산정과 대용량 입력 분할을 담당하는 컴포넌트
+ */
+@Component
+public class ContentChunker {
+
+    // 영문/숫자는 대략 4글자당 1토큰, 한글 등 비 ASCII 문자는 글자당 1토큰으로 추정
+    private static final int ASCII_CHARS_PER_TOKEN = 4;
+
+    // 청크를 이어 붙이는 구분자 (예산 계산에 포함)
+    private static final String PARAGRAPH_SEPARATOR = "\n\n";
+    private static final String SENTENCE_SEPARATOR = " ";
+
+    /**
+     * 텍스트의 토큰 수를 추정합니다.
+     *
+     * @param text 대상 텍스트
+     * @return 추정 토큰 수
+     */
+    public int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+
+        long asciiChars = 0;
+        long otherChars = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) {
+                asciiChars++;
+            } else {
+                otherChars++;
+            }
+        }
+
+        long tokens = (asciiChars + ASCII_CHARS_PER_TOKEN - 1) / ASCII_CHARS_PER_TOKEN + otherChars;
+        return (int) Math.min(tokens, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 텍스트를 토큰 예산 이하의 청크로 분할합니다.
+     * 문단, 문장, 글자 순으로 경계를 찾아 분할하며, 조각을 이어 붙이는 구분자도 예산에 포함합니다.
+     *
+     * @param text      대상 텍스트
+     * @param maxTokens 청크당 최대 토큰 수
+     * @return 분할된 청크 목록
+     */
+    public List<String> split(String text, int maxTokens) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int separatorTokens = estimateTokens(PARAGRAPH_SEPARATOR);
+        // 조각별 추정치의 합은 이어 붙인 텍스트의 추정치 이상이므로 예산을 넘지 않음
+        int currentTokens = 0;
+
+        for (String paragraph : text.split("\\n\\s*\\n")) {
+            for (String piece : splitOversized(paragraph, maxTokens)) {
+                int pieceTokens = estimateTokens(piece);
+
+                if (current.length() > 0 && currentTokens + separatorTokens + pieceTokens > maxTokens) {
+                    chunks.add(current.toString());
+                    current.setLength(0);
+                    currentTokens = 0;
+                }
+
+                if (current.length() > 0) {
+                    current.append(PARAGRAPH_SEPARATOR);
+                    currentTokens += separatorTokens;
+                }
+                current.append(piece);
+                currentTokens += pieceTokens;
+            }
+        }
+
+        if (current.length() > 0) {
+            chunks.add(current.toString());
+        }
+
+        return chunks;
+    }
+
+    /**
+     * 텍스트를 토큰 예산 이하가 되도록 앞부분만 남깁니다.
+     *
+     * @param text      대상 텍스트
+     * @param maxTokens 최대 토큰 수
+     * @return 예산 이내의 앞부분 (예산 이하이면 원본)
+     */
+    public String truncate(String text, int maxTokens) {
+        if (estimateTokens(text) <= maxTokens) {
+            return text;
+        }
+        return hardSplit(text, maxTokens).get(0);
+    }
+
+    /**
+     * 예산을 초과하는 문단을 문장 단위로, 그래도 초과하면 글자 단위로 자릅니다.
+     */
+    private List<String> splitOversized(String paragraph, int maxTokens) {
+        List<String> pieces = new ArrayList<>();
+
+        if (estimateTokens(paragraph) <= maxTokens) {
+            pieces.add(paragraph);
+            return pieces;
+        }
+
+        StringBuilder current = new StringBuilder();
+        int separatorTokens = estimateTokens(SENTENCE_SEPARATOR);
+        for (String sentence : paragraph.split("(?<=[.!?。])\\s+|\\n")) {
+            if (estimateTokens(sentence) > maxTokens) {
+                if (current.length() > 0) {
+                    pieces.add(current.toString());
+                    current.setLength(0);
+                }
+                pieces.addAll(hardSplit(sentence, maxTokens));
+                continue;
+            }
+
+            if (current.length() > 0
+                    && estimateTokens(current.toString()) + separatorTokens + estimateTokens(sentence) > maxTokens) {
+                pieces.add(current.toString());
+                current.setLength(0);
+            }
+
+            if (current.length() > 0) {
+                current.append(SENTENCE_SEPARATOR);
+            }
+            current.append(sentence);
+        }
+
+        if (current.length() > 0) {
+            pieces.add(current.toString());
+        }
+
+        return pieces;
+    }
+
+    /**
+     * 경계를 찾을 수 없는 긴 텍스트를 글자 수 기준으로 자릅니다.
+     */
+    private List<String> hardSplit(String text, int maxTokens) {
+        List<String> pieces = new ArrayList<>();
+        int start = 0;
+
+        while (start < text.length()) {
+            int end = start;
+            int tokens = 0;
+            int ascii = 0;
+
+            while (end < text.length()) {
+                if (text.charAt(end) < 128) {
+                    ascii++;
+                    if (ascii == ASCII_CHARS_PER_TOKEN) {
+                        tokens++;
+                        ascii = 0;
+                    }
+                } else {
+                    tokens++;
+                }
+                if (tokens >= maxTokens) {
+                    break;
+                }
+                end++;
+            }
+
+            end = Math.max(end, start + 1);
+            pieces.add(text.substring(start, Math.min(end, text.length())));
+            start = end;
+        }
+
+        return pieces;
+    }
+}
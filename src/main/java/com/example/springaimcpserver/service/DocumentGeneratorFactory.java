@@ -1,20 +1,27 @@
 package com.example.springaimcpserver.service;
 
 import com.example.springaimcpserver.model.DocumentRequest;
+import com.example.springaimcpserver.model.DocumentResponse;
+import com.example.springaimcpserver.service.impl.CsvGeneratorService;
 import com.example.springaimcpserver.service.impl.ExcelGeneratorService;
 import com.example.springaimcpserver.service.impl.PowerPointGeneratorService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+
 /**
  * 문서 유형에 따라 적절한 문서 생성 서비스를 제공하는 팩토리 클래스
  */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class DocumentGeneratorFactory {
 
     private final ExcelGeneratorService excelGeneratorService;
     private final PowerPointGeneratorService powerPointGeneratorService;
+    private final CsvGeneratorService csvGeneratorService;
 
     /**
      * 문서 유형에 따라 적절한 문서 생성 서비스를 반환합니다.
@@ -29,8 +36,45 @@ public class DocumentGeneratorFactory {
                 return excelGeneratorService;
             case POWERPOINT:
                 return powerPointGeneratorService;
+            case CSV:
+                return csvGeneratorService;
             default:
                 throw new IllegalArgumentException("지원하지 않는 문서 유형: " + documentType);
         }
     }
+
+    /**
+     * 모든 생성기 서비스에서 문서 상태를 조회합니다.
+     *
+     * @param documentId 문서 ID
+     * @return 문서 상태 (어느 생성기에도 없으면 empty)
+     */
+    public Optional<DocumentResponse> findDocumentStatus(String documentId) {
+        return findGenerator(documentId).map(generator -> generator.getDocumentStatus(documentId));
+    }
+
+    /**
+     * 문서를 생성한 생성기 서비스를 찾습니다.
+     *
+     * @param documentId 문서 ID
+     * @return 생성기 서비스 (어느 생성기에도 없으면 empty)
+     */
+    public Optional<DocumentGeneratorService> findGenerator(String documentId) {
+        for (DocumentRequest.DocumentType documentType : DocumentRequest.DocumentType.values()) {
+            try {
+                DocumentGeneratorService generator = getGenerator(documentType);
+                DocumentResponse response = generator.getDocumentStatus(documentId);
+
+                if (response.getStatus() != DocumentResponse.DocumentStatus.FAILED ||
+                        response.getErrorMessage() == null ||
+                        !response.getErrorMessage().contains("찾을 수 없습니다")) {
+                    return Optional.of(generator);
+                }
+            } catch (Exception e) {
+                log.debug("문서 조회 중 오류 발생: {}", e.getMessage());
+            }
+        }
+
+        return Optional.empty();
+    }
 }
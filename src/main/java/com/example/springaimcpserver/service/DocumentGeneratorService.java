@@ -1,7 +1,9 @@
 package com.example.springaimcpserver.service;
 
+import com.example.springaimcpserver.model.DocumentPatchRequest;
 import com.example.springaimcpserver.model.DocumentRequest;
 import com.example.springaimcpserver.model.DocumentResponse;
+import org.springframework.http.MediaType;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -25,4 +27,66 @@ public interface DocumentGeneratorService {
      * @return 문서 생성 상태 응답 객체
      */
     DocumentResponse getDocumentStatus(String documentId);
+
+    /**
+     * 완료된 문서의 일부(시트 또는 슬라이드)만 다시 생성합니다.
+     * 작업별로 보관한 구조화된 모델 출력에서 대상 부분만 다시 요청하고, 기존 파일을 열어 해당 부분만 교체합니다.
+     *
+     * @param documentId 문서의 ID
+     * @param patch 부분 수정 요청 객체
+     * @return 수정된 문서 응답 객체 (비동기, 실패 시 기존 문서 상태는 유지)
+     * @throws IllegalArgumentException 수정할 수 없는 문서이거나 대상이 잘못된 경우
+     */
+    CompletableFuture<DocumentResponse> patchDocument(String documentId, DocumentPatchRequest patch);
+
+    /**
+     * 이미 접수된 작업(클러스터 작업 큐에서 임대했거나 체크포인트에서 복구한 작업)을 이 노드에서 실행합니다.
+     * 같은 문서 ID 로 상태를 이어서 갱신하며, 체크포인트가 있으면 모델을 다시 호출하지 않고 렌더링만 수행합니다.
+     *
+     * @param documentId 접수 시 발급한 문서 ID
+     * @param request 문서 생성 요청 객체
+     * @return 문서 생성 응답 객체 (비동기, 스케줄러가 거부하면 RejectedExecutionException 으로 완료)
+     */
+    CompletableFuture<DocumentResponse> runQueuedJob(String documentId, DocumentRequest request);
+
+    /**
+     * 문서 내용을 생성하고, 파일 저장이나 상태 등록 없이 바로 기록할 수 있는 writer 를 반환합니다.
+     * 작은 문서를 HTTP 응답으로 직접 전송할 때 사용합니다.
+     *
+     * @param request 문서 생성 요청 객체
+     * @return 문서 writer (비동기)
+     */
+    CompletableFuture<DocumentWriter> renderInline(DocumentRequest request);
+
+    /**
+     * 생성하는 문서의 미디어 타입을 반환합니다.
+     *
+     * @return 미디어 타입
+     */
+    MediaType getMediaType();
+
+    /**
+     * 저장된 문서 파일의 다운로드 미디어 타입을 반환합니다.
+     * 요청 옵션에 따라 형식이 달라지는 문서는 파일 이름으로 구분합니다.
+     *
+     * @param fileName 작업별 파일 이름
+     * @return 미디어 타입
+     */
+    default MediaType getMediaType(String fileName) {
+        return getMediaType();
+    }
+
+    /**
+     * 생성하는 문서의 파일 확장자를 반환합니다.
+     *
+     * @return 파일 확장자 (점 포함)
+     */
+    String getFileExtension();
+
+    /**
+     * 샘플 문서를 렌더링하여 라이브러리 클래스 로딩과 JIT 컴파일을 미리 수행합니다.
+     * AI 호출이나 파일 저장은 하지 않습니다.
+     */
+    default void warmUp() {
+    }
 }
@@ -0,0 +1,67 @@
+package com.example.springaimcpserver.service;
+
+import com.example.springaimcpserver.model.DocumentRequest;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 클러스터 모드에서 노드 사이에 공유하는 문서 생성 작업 큐
+ * 작업은 임대(lease) 방식으로 가져가며, 임대를 갱신하지 못한 노드의 작업은 만료 후 다른 노드가 다시 가져갑니다.
+ */
+public interface DocumentJobQueue {
+
+    /**
+     * 작업을 큐에 넣습니다.
+     *
+     * @param documentId 문서 ID
+     * @param request    문서 생성 요청
+     */
+    void enqueue(String documentId, DocumentRequest request);
+
+    /**
+     * 대기 중이거나 임대가 만료된 작업을 우선순위 레인 순으로, 같은 레인에서는 테넌트별로 번갈아 등록 순서대로 가져갑니다.
+     * 가져오는 도중 오류가 발생하면 이미 가져간 작업을 반납한 뒤 오류를 전달합니다.
+     *
+     * @param owner     작업을 가져가는 노드 ID
+     * @param maxJobs   가져갈 최대 작업 수
+     * @param leaseTime 임대 시간
+     * @return 가져간 작업 목록
+     */
+    List<ClaimedJob> claim(String owner, int maxJobs, Duration leaseTime);
+
+    /**
+     * 실행 중인 작업의 임대를 연장합니다.
+     *
+     * @param documentId 문서 ID
+     * @param owner      작업을 가진 노드 ID
+     * @param leaseTime  연장할 임대 시간
+     */
+    void renew(String documentId, String owner, Duration leaseTime);
+
+    /**
+     * 완료된 작업을 큐에서 제거합니다.
+     *
+     * @param documentId 문서 ID
+     * @param owner      작업을 가진 노드 ID
+     */
+    void complete(String documentId, String owner);
+
+    /**
+     * 실행하지 못한 작업을 다른 노드가 가져갈 수 있도록 반납합니다.
+     *
+     * @param documentId 문서 ID
+     * @param owner      작업을 가진 노드 ID
+     */
+    void release(String documentId, String owner);
+
+    /**
+     * 임대한 작업
+     *
+     * @param documentId 문서 ID
+     * @param request    문서 생성 요청 (저장된 요청을 읽을 수 없으면 null)
+     * @param attempts   이번을 포함한 시도 횟수
+     */
+    record ClaimedJob(String documentId, DocumentRequest request, int attempts) {
+    }
+}
@@ -0,0 +1,554 @@
+package com.example.springaimcpserver.service;
+
+import com.example.springaimcpserver.model.DocumentRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 문서 생성 작업 스케줄러
+ * 우선순위 레인(interactive, batch, background) 사이와 레인 내 테넌트 사이를
+ * 가중치 기반 공정 큐잉(stride scheduling)으로 선택하여, 대량 배치 요청이 대화형 요청을 굶기지 않도록 합니다.
+ * 가중치는 대기 작업의 선택 순서만 정하므로, 오래 걸리는 배치 작업이 모든 작업 스레드를 차지하지 않도록
+ * batch/background 레인이 동시에 쓸 수 있는 스레드 수를 제한하여 interactive 레인 몫을 남겨 둡니다.
+ * 종료 시에는 HTTP 요청 처리가 끝난 뒤 새 작업 접수를 멈추고, 대기 중인 작업까지 drain-timeout 안에서 마저 실행합니다.
+ * 시간 안에 시작하지 못한 작업만 거부하며, 접수 시 남긴 체크포인트로 재시작 후 다시 실행됩니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentJobScheduler implements SmartLifecycle {
+
+    // 웹 서버의 graceful shutdown(DEFAULT_PHASE - 1024)보다 나중에 중지
+    private static final int SHUTDOWN_PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    /** additionalOptions 에서 우선순위 레인을 지정하는 키 */
+    public static final String OPTION_PRIORITY = "priority";
+
+    /** additionalOptions 에서 테넌트를 지정하는 키 */
+    public static final String OPTION_TENANT = "tenant";
+
+    public static final String DEFAULT_TENANT = "anonymous";
+
+    public static final String PRIORITY_HEADER = "X-Priority";
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+    public static final String API_KEY_HEADER = "X-Api-Key";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.scheduler.workers:8}")
+    private int workerCount;
+
+    @Value("${app.scheduler.max-queued-per-lane:10000}")
+    private int maxQueuedPerLane;
+
+    // batch/background 작업이 사용할 수 없는 interactive 전용 작업 스레드 수
+    @Value("${app.scheduler.interactive-reserved-workers:2}")
+    private int interactiveReservedWorkers;
+
+    @Value("#{${app.scheduler.lane-weights:{interactive: 8, batch: 3, background: 1}}}")
+    private Map<String, Integer> laneWeights;
+
+    @Value("#{${app.scheduler.tenant-weights:{:}}}")
+    private Map<String, Integer> tenantWeights;
+
+    // 종료 시 실행 중인 작업을 기다리는 최대 시간, 초과하면 작업을 중단(체크포인트는 남음)
+    @Value("${app.scheduler.drain-timeout:30s}")
+    private Duration drainTimeout;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Map<Lane, LaneQueue> lanes = new EnumMap<>(Lane.class);
+    private final List<Thread> workers = new ArrayList<>();
+    private int maxNonInteractiveRunning;
+    private int nonInteractiveRunning;
+    private volatile boolean running = true;
+    private volatile boolean lifecycleStarted;
+
+    public enum Lane {
+        INTERACTIVE,
+        BATCH,
+        BACKGROUND;
+
+        /** 우선순위를 지정하지 않았거나 알 수 없는 값일 때 사용하는 레인 */
+        public static final Lane DEFAULT = BATCH;
+
+        /**
+         * 문자열에서 레인을 찾습니다. 값이 없거나 알 수 없는 값이면 {@link #DEFAULT}(BATCH) 를 반환하므로,
+         * interactive 레인은 명시적으로 요청한 작업만 사용합니다.
+         */
+        public static Lane from(Object value) {
+            if (value == null) {
+                return DEFAULT;
+            }
+            try {
+                return Lane.valueOf(value.toString().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return DEFAULT;
+            }
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        for (Lane lane : Lane.values()) {
+            int weight = Math.max(1, laneWeights.getOrDefault(lane.name().toLowerCase(Locale.ROOT), 1));
+            LaneQueue queue = new LaneQueue(lane, weight);
+            lanes.put(lane, queue);
+
+            String laneTag = lane.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("documents.scheduler.queue.size", queue, q -> q.size)
+                    .tag("lane", laneTag)
+                    .register(meterRegistry);
+            queue.waitTimer = Timer.builder("documents.scheduler.wait")
+                    .tag("lane", laneTag)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            queue.executionTimer = Timer.builder("documents.scheduler.execution")
+                    .tag("lane", laneTag)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            queue.rejectedCounter = Counter.builder("documents.scheduler.rejected")
+                    .tag("lane", laneTag)
+                    .register(meterRegistry);
+        }
+
+        // 작업 스레드가 하나뿐이면 예약 없이 모든 레인이 같이 사용
+        maxNonInteractiveRunning = Math.max(1, workerCount - Math.max(0, interactiveReservedWorkers));
+
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "DocumentJob-" + (i + 1));
+            worker.start();
+            workers.add(worker);
+        }
+
+        log.info("Document job scheduler started with {} workers ({} usable by batch/background), lane weights {}",
+                workerCount, maxNonInteractiveRunning, laneWeights);
+    }
+
+    @Override
+    public void start() {
+        lifecycleStarted = true;
+    }
+
+    /**
+     * 새 작업 접수를 멈추고, 대기 중인 작업과 실행 중인 작업이 끝나기를 drain-timeout 까지 기다립니다.
+     * 작업 스레드는 대기열이 빌 때까지 계속 작업을 가져가며, 시간 안에 시작하지 못한 작업만 거부합니다.
+     * 거부된 작업은 RejectedExecutionException 으로 완료되고, 접수 시 남긴 체크포인트(클러스터 모드에서는 공유 큐)로 다시 실행됩니다.
+     */
+    @Override
+    public void stop() {
+        lifecycleStarted = false;
+        int queued;
+
+        lock.lock();
+        try {
+            running = false;
+            queued = queuedJobs();
+            // 대기 작업이 없어 기다리던 작업 스레드가 종료되도록 깨움
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        for (Thread worker : workers) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                break;
+            }
+            try {
+                worker.join(remainingMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        int rejected = rejectQueued();
+        long unfinished = workers.stream().filter(Thread::isAlive).count();
+        log.info("Document job scheduler drained ({} queued at shutdown, {} rejected after drain timeout, {} jobs still running)",
+                queued, rejected, unfinished);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return lifecycleStarted;
+    }
+
+    @Override
+    public int getPhase() {
+        return SHUTDOWN_PHASE;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        running = false;
+        rejectQueued();
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * 종료가 시작되어 새 작업을 받지 않는 상태인지 반환합니다.
+     *
+     * @return 종료 중이면 true
+     */
+    public boolean isShuttingDown() {
+        return !running;
+    }
+
+    /**
+     * 작업 실패가 종료로 인한 중단인지 판단합니다.
+     * 종료 중이면서 원인에 스레드 인터럽트(InterruptedException, InterruptedIOException, ClosedByInterruptException)나
+     * 작업 거부(RejectedExecutionException)가 있는 경우만 중단으로 보며, 종료 중에 발생한 다른 오류는 실제 실패로 기록해야 합니다.
+     *
+     * @param failure 작업 중 발생한 예외
+     * @return 종료로 인한 중단이면 true (체크포인트를 유지하고 실패로 기록하지 않음)
+     */
+    public boolean isShutdownInterruption(Throwable failure) {
+        if (running) {
+            return false;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof InterruptedIOException
+                    || cause instanceof ClosedByInterruptException || cause instanceof RejectedExecutionException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * HTTP 헤더의 우선순위/테넌트 정보를 요청 옵션에 반영합니다.
+     * 테넌트는 공정 큐잉의 몫을 정하는 호출자 식별 정보이므로 본문의 additionalOptions.tenant 는 버리고
+     * 헤더(X-Tenant-Id, 없으면 API 키 해시)로만 정합니다. 우선순위는 헤더가 본문보다 우선합니다.
+     *
+     * @param request  문서 생성 요청
+     * @param priority X-Priority 헤더 값 (nullable)
+     * @param tenantId X-Tenant-Id 헤더 값 (nullable)
+     * @param apiKey   X-Api-Key 헤더 값 (nullable)
+     */
+    public void applyRequestHeaders(DocumentRequest request, String priority, String tenantId, String apiKey) {
+        String tenant = tenantId != null ? tenantId : (apiKey != null ? "key-" + shortHash(apiKey) : null);
+        Map<String, Object> requested = request.getAdditionalOptions();
+        if (priority == null && tenant == null && (requested == null || !requested.containsKey(OPTION_TENANT))) {
+            return;
+        }
+
+        Map<String, Object> options = requested != null ? new HashMap<>(requested) : new HashMap<>();
+        options.remove(OPTION_TENANT);
+        if (priority != null) {
+            options.put(OPTION_PRIORITY, priority);
+        }
+        if (tenant != null) {
+            options.put(OPTION_TENANT, tenant);
+        }
+        request.setAdditionalOptions(options);
+    }
+
+    /**
+     * 요청의 우선순위와 테넌트에 따라 작업을 스케줄링합니다.
+     *
+     * @param request 문서 생성 요청
+     * @param task    실행할 작업
+     * @return 작업 결과 (큐가 가득 차면 RejectedExecutionException 으로 완료)
+     */
+    public <T> CompletableFuture<T> submit(DocumentRequest request, Supplier<T> task) {
+        Map<String, Object> options = request.getAdditionalOptions();
+        Lane lane = Lane.from(options != null ? options.get(OPTION_PRIORITY) : null);
+        Object tenant = options != null ? options.get(OPTION_TENANT) : null;
+
+        return submit(lane, tenant != null ? tenant.toString() : DEFAULT_TENANT, task);
+    }
+
+    /**
+     * 지정한 레인과 테넌트로 작업을 스케줄링합니다.
+     *
+     * @param lane   우선순위 레인
+     * @param tenant 테넌트 (API 키 또는 테넌트 ID)
+     * @param task   실행할 작업
+     * @return 작업 결과 (큐가 가득 차면 RejectedExecutionException 으로 완료)
+     */
+    public <T> CompletableFuture<T> submit(Lane lane, String tenant, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        // 접수 스레드의 MDC(상관 ID, 샘플링 여부)를 작업 스레드로 전달
+        Job<T> job = new Job<>(tenant, task, future, System.nanoTime(), MDC.getCopyOfContextMap());
+
+        lock.lock();
+        try {
+            if (!running) {
+                future.completeExceptionally(new RejectedExecutionException("서버가 종료 중입니다."));
+                return future;
+            }
+
+            LaneQueue queue = lanes.get(lane);
+            if (queue.size >= maxQueuedPerLane) {
+                queue.rejectedCounter.increment();
+                future.completeExceptionally(new RejectedExecutionException(
+                        String.format("%s 레인의 대기열이 가득 찼습니다. (최대 %d)", lane, maxQueuedPerLane)));
+                return future;
+            }
+
+            queue.offer(job, tenantWeight(tenant), minLanePass());
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        return future;
+    }
+
+    private void runWorker() {
+        while (true) {
+            LaneQueue queue;
+            Job<?> job;
+
+            lock.lock();
+            try {
+                queue = nextLane();
+                while (queue == null) {
+                    // 종료 중에는 대기열이 모두 빌 때까지 계속 실행 (batch 제한에 걸린 경우는 실행 중인 작업이 끝나기를 기다림)
+                    if (!running && queuedJobs() == 0) {
+                        return;
+                    }
+                    notEmpty.await();
+                    queue = nextLane();
+                }
+                job = queue.poll();
+                if (!running && queuedJobs() == 0) {
+                    // 종료 중 마지막 대기 작업을 가져갔으므로, 남은 작업을 기다리던 스레드가 종료되도록 깨움
+                    notEmpty.signalAll();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            queue.waitTimer.record(System.nanoTime() - job.enqueuedAt, TimeUnit.NANOSECONDS);
+            try {
+                queue.executionTimer.record(job::run);
+            } finally {
+                if (queue.lane != Lane.INTERACTIVE) {
+                    lock.lock();
+                    try {
+                        nonInteractiveRunning--;
+                        // 제한에 걸려 기다리던 batch/background 작업을 깨움
+                        notEmpty.signal();
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 대기 작업이 있는 레인 중 pass 값이 가장 작은 레인을 선택합니다.
+     * batch/background 레인은 동시 실행 제한에 도달하면 선택하지 않으며, 선택되면 실행 수를 늘립니다.
+     */
+    private LaneQueue nextLane() {
+        boolean nonInteractiveAvailable = nonInteractiveRunning < maxNonInteractiveRunning;
+        LaneQueue selected = null;
+        for (LaneQueue queue : lanes.values()) {
+            if (queue.size > 0 && (queue.lane == Lane.INTERACTIVE || nonInteractiveAvailable)
+                    && (selected == null || queue.pass < selected.pass)) {
+                selected = queue;
+            }
+        }
+        if (selected != null && selected.lane != Lane.INTERACTIVE) {
+            nonInteractiveRunning++;
+        }
+        if (selected != null) {
+            selected.pass += 1.0 / selected.weight;
+        }
+        return selected;
+    }
+
+    private int queuedJobs() {
+        return lanes.values().stream().mapToInt(queue -> queue.size).sum();
+    }
+
+    /**
+     * 아직 시작하지 못한 작업을 모두 거부하고, 기다리던 작업 스레드가 종료되도록 깨웁니다.
+     */
+    private int rejectQueued() {
+        lock.lock();
+        try {
+            int rejected = 0;
+            for (LaneQueue queue : lanes.values()) {
+                rejected += queue.rejectAll();
+            }
+            notEmpty.signalAll();
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double minLanePass() {
+        return lanes.values().stream()
+                .filter(queue -> queue.size > 0)
+                .mapToDouble(queue -> queue.pass)
+                .min()
+                .orElse(lanes.values().stream().mapToDouble(queue -> queue.pass).max().orElse(0));
+    }
+
+    private static String shortHash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int tenantWeight(String tenant) {
+        return Math.max(1, tenantWeights.getOrDefault(tenant, 1));
+    }
+
+    /**
+     * 하나의 우선순위 레인. 테넌트별 큐를 가지며 테넌트 사이도 stride scheduling 으로 선택합니다.
+     */
+    private static final class LaneQueue {
+
+        private final Lane lane;
+        private final int weight;
+        private final Map<String, TenantQueue> tenants = new HashMap<>();
+        private double pass;
+        private int size;
+
+        private Timer waitTimer;
+        private Timer executionTimer;
+        private Counter rejectedCounter;
+
+        private LaneQueue(Lane lane, int weight) {
+            this.lane = lane;
+            this.weight = weight;
+        }
+
+        private void offer(Job<?> job, int tenantWeight, double globalPass) {
+            if (size == 0) {
+                // 유휴 상태였던 레인이 그동안 쌓이지 않은 몫을 한꺼번에 쓰지 않도록 현재 시점으로 맞춤
+                pass = Math.max(pass, globalPass);
+            }
+
+            TenantQueue tenantQueue = tenants.get(job.tenant);
+            if (tenantQueue == null) {
+                // 새로 대기열에 들어온 테넌트는 현재 진행 중인 테넌트들과 같은 지점에서 시작
+                tenantQueue = new TenantQueue(minTenantPass());
+                tenants.put(job.tenant, tenantQueue);
+            }
+            tenantQueue.weight = tenantWeight;
+
+            tenantQueue.jobs.add(job);
+            size++;
+        }
+
+        private Job<?> poll() {
+            TenantQueue selected = null;
+            for (TenantQueue tenantQueue : tenants.values()) {
+                if (!tenantQueue.jobs.isEmpty() && (selected == null || tenantQueue.pass < selected.pass)) {
+                    selected = tenantQueue;
+                }
+            }
+
+            selected.pass += 1.0 / selected.weight;
+            size--;
+            Job<?> job = selected.jobs.poll();
+
+            if (selected.jobs.isEmpty()) {
+                tenants.values().remove(selected);
+            }
+            return job;
+        }
+
+        private int rejectAll() {
+            int rejected = size;
+            for (TenantQueue tenantQueue : tenants.values()) {
+                tenantQueue.jobs.forEach(job -> job.future.completeExceptionally(
+                        new RejectedExecutionException("서버가 종료 중입니다.")));
+            }
+            tenants.clear();
+            size = 0;
+            return rejected;
+        }
+
+        private double minTenantPass() {
+            return tenants.values().stream()
+                    .filter(tenantQueue -> !tenantQueue.jobs.isEmpty())
+                    .mapToDouble(tenantQueue -> tenantQueue.pass)
+                    .min()
+                    .orElse(0);
+        }
+
+        @Override
+        public String toString() {
+            return lane + "(" + size + ")";
+        }
+    }
+
+    private static final class TenantQueue {
+        private final ArrayDeque<Job<?>> jobs = new ArrayDeque<>();
+        private int weight = 1;
+        private double pass;
+
+        private TenantQueue(double pass) {
+            this.pass = pass;
+        }
+    }
+
+    private record Job<T>(String tenant, Supplier<T> task, CompletableFuture<T> future, long enqueuedAt,
+                          Map<String, String> mdc) {
+
+        private void run() {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                future.complete(task.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                MDC.clear();
+            }
+        }
+    }
+}
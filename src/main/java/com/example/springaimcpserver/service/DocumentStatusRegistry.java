@@ -0,0 +1,42 @@
+package com.example.springaimcpserver.service;
+
+import com.example.springaimcpserver.model.DocumentRequest;
+import com.example.springaimcpserver.model.DocumentResponse;
+
+import java.util.Optional;
+
+/**
+ * 문서 생성 상태 저장소
+ * 단일 노드에서는 인메모리 구현을, 클러스터 모드(app.cluster.enabled=true)에서는 모든 노드가 공유하는 DB 구현을 사용합니다.
+ */
+public interface DocumentStatusRegistry {
+
+    /**
+     * 문서 상태를 저장합니다. 같은 ID 의 상태가 있으면 덮어씁니다.
+     *
+     * @param documentType 문서 유형
+     * @param response     문서 상태
+     */
+    void save(DocumentRequest.DocumentType documentType, DocumentResponse response);
+
+    /**
+     * 문서 상태를 조회합니다.
+     *
+     * @param documentType 문서 유형
+     * @param documentId   문서 ID
+     * @return 문서 상태 (없으면 empty)
+     */
+    Optional<DocumentResponse> find(DocumentRequest.DocumentType documentType, String documentId);
+
+    /**
+     * 현재 상태가 기대한 상태일 때만 문서 상태를 바꿉니다.
+     *
+     * @param documentType   문서 유형
+     * @param documentId     문서 ID
+     * @param expectedStatus 기대하는 현재 상태
+     * @param updated        새 문서 상태
+     * @return 변경 여부
+     */
+    boolean replaceIfStatus(DocumentRequest.DocumentType documentType, String documentId,
+                            DocumentResponse.DocumentStatus expectedStatus, DocumentResponse updated);
+}
@@ -0,0 +1,149 @@
+package com.example.springaimcpserver.service;
+
+import com.example.springaimcpserver.model.DocumentRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 부분 수정에 사용하는 완료 문서의 요청과 구조화된 모델 출력 저장소
+ * temp-dir/structures/{documentId}.json 에 저장하므로 메모리를 차지하지 않고, 재시작 후나 같은 볼륨을 쓰는 다른 노드에서도 수정할 수 있습니다.
+ * 보관 기간(app.document.structures.retention)이 지난 구조는 삭제하며, 이후 그 문서의 수정 요청은 거부됩니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentStructureStore {
+
+    private static final String STRUCTURE_DIR = "structures";
+    private static final String EXTENSION = ".json";
+
+    // 저장할 때마다 디렉터리 전체를 훑지 않도록 만료 정리는 이 간격마다 한 번만 수행
+    private static final Duration SWEEP_INTERVAL = Duration.ofMinutes(10);
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.document.temp-dir}")
+    private String tempDir;
+
+    @Value("${app.document.structures.retention:7d}")
+    private Duration retention;
+
+    private Path directory;
+
+    private final AtomicReference<Instant> lastSweep = new AtomicReference<>(Instant.EPOCH);
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = Paths.get(tempDir, STRUCTURE_DIR);
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * 문서의 요청과 모델 출력을 저장합니다. 같은 문서의 구조가 있으면 덮어씁니다.
+     * 저장에 실패하면 그 문서는 부분 수정할 수 없게 되지만 생성 결과에는 영향을 주지 않습니다.
+     *
+     * @param documentId 문서 ID
+     * @param request    문서 생성 요청
+     * @param structure  렌더링에 사용한 모델 출력
+     */
+    public void save(String documentId, DocumentRequest request, Object structure) {
+        Path target = pathOf(documentId);
+        try {
+            Path temp = Files.createTempFile(directory, documentId, EXTENSION + ".tmp");
+            try {
+                StoredStructure stored = new StoredStructure(documentId, request, objectMapper.valueToTree(structure));
+                Files.write(temp, objectMapper.writeValueAsBytes(stored));
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to store structure for {}: {}", documentId, e.getMessage());
+        }
+
+        sweepExpired();
+    }
+
+    /**
+     * 저장된 요청과 모델 출력을 조회합니다.
+     *
+     * @param documentId 문서 ID
+     * @param type       모델 출력 타입
+     * @return 요청과 모델 출력 (없거나 보관 기간이 지났거나 읽을 수 없으면 empty)
+     */
+    public <T> Optional<Structure<T>> find(String documentId, TypeReference<T> type) {
+        Path file = pathOf(documentId);
+        try {
+            if (!Files.exists(file) || isExpired(file)) {
+                return Optional.empty();
+            }
+            StoredStructure stored = objectMapper.readValue(file.toFile(), StoredStructure.class);
+            return Optional.of(new Structure<>(stored.request(), objectMapper.convertValue(stored.structure(), type)));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring unreadable structure {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void sweepExpired() {
+        Instant now = Instant.now();
+        Instant last = lastSweep.get();
+        if (now.isBefore(last.plus(SWEEP_INTERVAL)) || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (isExpired(file) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to sweep structures in {}: {}", directory, e.getMessage());
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} structures older than {}", deleted, retention);
+        }
+    }
+
+    private boolean isExpired(Path file) throws IOException {
+        return Files.getLastModifiedTime(file).toInstant().isBefore(Instant.now().minus(retention));
+    }
+
+    private Path pathOf(String documentId) {
+        return directory.resolve(documentId + EXTENSION);
+    }
+
+    /**
+     * 조회한 요청과 모델 출력
+     *
+     * @param request   문서 생성 요청
+     * @param structure 모델 출력
+     */
+    public record Structure<T>(DocumentRequest request, T structure) {
+    }
+
+    /**
+     * 구조 파일 내용
+     */
+    record StoredStructure(String documentId, DocumentRequest request, JsonNode structure) {
+    }
+}
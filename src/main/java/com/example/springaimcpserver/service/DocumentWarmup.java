@@ -0,0 +1,67 @@
+package com.example.springaimcpserver.service;
+
+import com.example.springaimcpserver.model.DocumentRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * 애플리케이션 컨텍스트 초기화 중에 각 문서 유형의 샘플을 렌더링하여
+ * POI/XMLBeans 스키마 클래스 로딩과 JIT 컴파일을 미리 수행합니다.
+ * 웹 서버 시작과 readiness 전환보다 먼저 실행되므로 첫 요청부터 정상 상태의 지연 시간으로 처리됩니다.
+ * AppCDS 학습 실행(spring.context.exit=onRefresh)에도 포함되어 해당 클래스들이 아카이브됩니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class DocumentWarmup implements SmartInitializingSingleton {
+
+    private final DocumentGeneratorFactory documentGeneratorFactory;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long startTime = System.nanoTime();
+
+        for (DocumentRequest.DocumentType documentType : DocumentRequest.DocumentType.values()) {
+            DocumentGeneratorService generatorService = documentGeneratorFactory.getGenerator(documentType);
+
+            try {
+                // 첫 렌더링은 클래스 로딩 비용을, 두 번째 렌더링은 정상 상태 비용을 측정
+                double coldMillis = timeMillis(generatorService::warmUp);
+                double warmMillis = timeMillis(generatorService::warmUp);
+
+                String type = documentType.name().toLowerCase(Locale.ROOT);
+                Gauge.builder("documents.warmup.render", () -> coldMillis)
+                        .tag("type", type).tag("phase", "cold").baseUnit("milliseconds")
+                        .register(meterRegistry);
+                Gauge.builder("documents.warmup.render", () -> warmMillis)
+                        .tag("type", type).tag("phase", "warm").baseUnit("milliseconds")
+                        .register(meterRegistry);
+
+                log.info("Warm-up {}: first render {} ms, steady-state render {} ms",
+                        documentType, Math.round(coldMillis), Math.round(warmMillis));
+            } catch (Exception e) {
+                log.warn("Warm-up {} failed: {}", documentType, e.getMessage());
+            }
+        }
+
+        log.info("Document warm-up finished in {} ms (JVM uptime {} ms)",
+                (System.nanoTime() - startTime) / 1_000_000,
+                ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    private double timeMillis(Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.springaimcpserver.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 렌더링 준비가 끝난 문서를 출력 스트림에 기록하는 함수형 인터페이스
+ */
+@FunctionalInterface
+public interface DocumentWriter {
+
+    /**
+     * 문서를 출력 스트림에 기록합니다.
+     *
+     * @param out 출력 스트림
+     * @throws IOException 기록 중 오류 발생 시
+     */
+    void writeTo(OutputStream out) throws IOException;
+}
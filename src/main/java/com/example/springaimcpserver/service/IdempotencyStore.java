@@ -0,0 +1,187 @@
+package com.example.springaimcpserver.service;
+
+import com.example.springaimcpserver.exception.IdempotencyKeyConflictException;
+import com.example.springaimcpserver.model.DocumentRequest;
+import com.example.springaimcpserver.model.DocumentResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 별 문서 생성 작업 저장소
+ * 게이트웨이 타임아웃 후 재시도한 요청이 새 작업과 새 모델 호출을 만들지 않도록, 같은 키의 요청에는 원래 작업을 반환합니다.
+ * 키는 테넌트별로 구분하며, 보관 기간(TTL)과 최대 개수를 넘은 항목은 오래된 것부터 제거합니다.
+ * 항목은 노드 메모리에만 있으므로 클러스터 모드에서는 같은 노드로 재시도된 요청만 중복이 제거됩니다.
+ * 로드 밸런서에서 Idempotency-Key 또는 테넌트 기준 고정 라우팅(sticky)을 쓰지 않으면 다른 노드로 간 재시도는 새 작업을 만듭니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyStore {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final DocumentGeneratorFactory documentGeneratorFactory;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${app.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    // 등록 순서를 유지하여 만료와 개수 초과 시 오래된 항목부터 제거
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private Counter duplicateCounter;
+    private Counter conflictCounter;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("documents.idempotency.entries", this, store -> store.size())
+                .register(meterRegistry);
+        duplicateCounter = Counter.builder("documents.idempotency.duplicates")
+                .description("같은 Idempotency-Key 로 재시도되어 생략된 문서 생성 수")
+                .register(meterRegistry);
+        conflictCounter = Counter.builder("documents.idempotency.conflicts")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 같은 키로 접수된 작업이 있으면 그 작업을, 없으면 새로 생성한 작업을 반환합니다.
+     * 이미 끝난 작업은 현재 상태를 다시 조회하여 반환하며, 실패했거나 거부된 작업은 키를 해제하여 재시도할 수 있도록 합니다.
+     *
+     * @param key         Idempotency-Key 헤더 값
+     * @param fingerprint 스케줄러 헤더를 반영하기 전의 요청으로 계산한 {@link #fingerprint(DocumentRequest)} 값
+     * @param request     문서 생성 요청 (스케줄러 헤더가 반영된 상태, 키를 테넌트별로 구분하는 데 사용)
+     * @param generation  새 작업을 시작하는 함수
+     * @return 문서 생성 응답 (비동기)
+     * @throws IdempotencyKeyConflictException 같은 키로 내용이 다른 요청이 접수된 경우
+     */
+    public CompletableFuture<DocumentResponse> execute(String key, String fingerprint, DocumentRequest request,
+                                                       Supplier<CompletableFuture<DocumentResponse>> generation) {
+        String scopedKey = tenantOf(request) + ":" + key;
+
+        CompletableFuture<DocumentResponse> future;
+        synchronized (entries) {
+            evictExpired();
+
+            Entry existing = entries.get(scopedKey);
+            if (existing != null) {
+                if (!existing.fingerprint().equals(fingerprint)) {
+                    conflictCounter.increment();
+                    throw new IdempotencyKeyConflictException(
+                            "같은 Idempotency-Key 로 다른 내용의 요청이 이미 접수되었습니다.");
+                }
+                duplicateCounter.increment();
+                log.debug("Idempotent replay for key {}", scopedKey);
+                return existing.future().thenApply(this::currentStatus);
+            }
+
+            future = new CompletableFuture<>();
+            entries.put(scopedKey, new Entry(fingerprint, future, Instant.now()));
+        }
+
+        // 모델 호출과 스케줄링은 잠금 밖에서 시작
+        try {
+            generation.get().whenComplete((response, ex) -> {
+                if (ex != null || response.getStatus() == DocumentResponse.DocumentStatus.FAILED) {
+                    release(scopedKey, future);
+                }
+                if (ex != null) {
+                    future.completeExceptionally(ex);
+                } else {
+                    future.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            release(scopedKey, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        return future;
+    }
+
+    private DocumentResponse currentStatus(DocumentResponse response) {
+        return documentGeneratorFactory.findDocumentStatus(response.getId()).orElse(response);
+    }
+
+    private void release(String scopedKey, CompletableFuture<DocumentResponse> future) {
+        synchronized (entries) {
+            entries.computeIfPresent(scopedKey, (k, entry) -> entry.future() == future ? null : entry);
+        }
+    }
+
+    private void evictExpired() {
+        Instant threshold = Instant.now().minus(ttl);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entries.size() < maxEntries && !entry.createdAt().isBefore(threshold)) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String tenantOf(DocumentRequest request) {
+        Map<String, Object> options = request.getAdditionalOptions();
+        Object tenant = options != null ? options.get(DocumentJobScheduler.OPTION_TENANT) : null;
+        return tenant != null ? tenant.toString() : DocumentJobScheduler.DEFAULT_TENANT;
+    }
+
+    /**
+     * Idempotency-Key 헤더가 지정되었는지 확인합니다.
+     */
+    public static boolean hasKey(String key) {
+        return key != null && !key.isBlank();
+    }
+
+    /**
+     * 요청 내용의 지문(SHA-256)을 계산합니다.
+     * 재시도마다 달라질 수 있는 우선순위/테넌트 헤더가 지문에 섞이지 않도록, 헤더를 반영하기 전의 클라이언트 요청으로 호출합니다.
+     *
+     * @param request 클라이언트가 보낸 문서 생성 요청
+     * @return 지문 (16진수)
+     */
+    public String fingerprint(DocumentRequest request) {
+        try {
+            // 옵션 맵의 순서와 무관하게 같은 내용이면 같은 값이 되도록 키 순서로 직렬화
+            byte[] json = objectMapper.writer()
+                    .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<DocumentResponse> future, Instant createdAt) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.springaimcpserver.service;
+
+import com.example.springaimcpserver.model.DocumentRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 요청 크기와 문서 유형, 지연 시간 목표에 따라 호출할 모델을 선택하는 컴포넌트
+ */
+@Slf4j
+@Component
+public class ModelRouter {
+
+    /** additionalOptions 에서 모델을 직접 지정하는 키 */
+    public static final String OPTION_MODEL = "model";
+
+    /** additionalOptions 에서 지연 시간 목표(ms)를 지정하는 키 */
+    public static final String OPTION_LATENCY_SLO_MS = "latencySloMs";
+
+    @Value("${app.ai.routing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.ai.routing.small-model:gpt-3.5-turbo}")
+    private String smallModel;
+
+    @Value("${app.ai.routing.default-model:gpt-4-turbo}")
+    private String defaultModel;
+
+    @Value("${app.ai.routing.large-model:gpt-4-turbo}")
+    private String largeModel;
+
+    // additionalOptions.model 로 지정할 수 있는 모델 (small/default/large 모델 외에 추가로 허용할 모델)
+    @Value("${app.ai.routing.allowed-models:}")
+    private List<String> allowedModels;
+
+    // 입력 + 예상 출력 토큰이 이 값 이하이면 소형 모델 사용
+    @Value("${app.ai.routing.small-max-tokens:2000}")
+    private int smallMaxTokens;
+
+    // 입력 + 예상 출력 토큰이 이 값을 넘으면 대형 모델 사용
+    @Value("${app.ai.routing.default-max-tokens:12000}")
+    private int defaultMaxTokens;
+
+    // 지연 시간 목표가 이 값 이하이면 크기 기준을 두 배로 완화하여 소형 모델 우선
+    @Value("${app.ai.routing.tight-latency-slo-ms:5000}")
+    private long tightLatencySloMs;
+
+    /**
+     * 요청에 사용할 모델을 선택합니다.
+     * additionalOptions.model 은 설정된 모델(small/default/large, allowed-models)인 경우에만 사용하고,
+     * 그 외의 값은 무시하고 요청 크기로 라우팅합니다.
+     *
+     * @param documentType 문서 유형
+     * @param inputTokens  프롬프트의 추정 토큰 수
+     * @param options      요청의 additionalOptions (nullable)
+     * @return 모델 이름
+     */
+    public String selectModel(DocumentRequest.DocumentType documentType, int inputTokens, Map<String, Object> options) {
+        Object requestedModel = options != null ? options.get(OPTION_MODEL) : null;
+        if (requestedModel != null && !requestedModel.toString().isBlank()) {
+            String model = requestedModel.toString().trim();
+            if (isAllowed(model)) {
+                return model;
+            }
+            log.warn("Ignoring requested model {} (not in configured routing tiers or allowed-models)", model);
+        }
+
+        if (!enabled) {
+            return defaultModel;
+        }
+
+        int totalTokens = inputTokens + estimateOutputTokens(documentType, inputTokens);
+        int smallLimit = isTightLatencySlo(options) ? smallMaxTokens * 2 : smallMaxTokens;
+
+        String model;
+        if (totalTokens <= smallLimit) {
+            model = smallModel;
+        } else if (totalTokens <= defaultMaxTokens) {
+            model = defaultModel;
+        } else {
+            model = largeModel;
+        }
+
+        log.debug("Routed {} request (~{} tokens) to model {}", documentType, totalTokens, model);
+        return model;
+    }
+
+    /**
+     * 긴 입력의 청크 요약에 사용할 모델을 반환합니다.
+     * 요약은 사실을 보존하는 단순 작업이므로 라우팅을 켠 경우 소형 모델을 사용합니다.
+     *
+     * @return 모델 이름
+     */
+    public String summaryModel() {
+        return enabled ? smallModel : defaultModel;
+    }
+
+    /**
+     * 구조화된 응답 파싱에 실패했을 때 재시도할 상위 모델을 반환합니다.
+     *
+     * @param model 실패한 모델
+     * @return 상위 모델 (더 이상 없으면 empty)
+     */
+    public Optional<String> fallbackModel(String model) {
+        List<String> tiers = List.of(smallModel, defaultModel, largeModel);
+        int index = tiers.indexOf(model);
+
+        if (index < 0) {
+            return Optional.of(defaultModel).filter(m -> !m.equals(model));
+        }
+
+        for (int i = index + 1; i < tiers.size(); i++) {
+            if (!tiers.get(i).equals(model)) {
+                return Optional.of(tiers.get(i));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * 문서 유형별 예상 출력 토큰 수를 계산합니다.
+     * 엑셀과 CSV 는 설명보다 데이터가 커지는 경향이 있고, PPT 는 슬라이드 수에 비례해 일정량이 필요합니다.
+     */
+    private int estimateOutputTokens(DocumentRequest.DocumentType documentType, int inputTokens) {
+        switch (documentType) {
+            case EXCEL:
+            case CSV:
+                return Math.max(500, inputTokens * 2);
+            case POWERPOINT:
+                return Math.max(800, inputTokens);
+            default:
+                return inputTokens;
+        }
+    }
+
+    private boolean isAllowed(String model) {
+        return model.equals(smallModel) || model.equals(defaultModel) || model.equals(largeModel)
+                || allowedModels.contains(model);
+    }
+
+    private boolean isTightLatencySlo(Map<String, Object> options) {
+        if (options == null || options.get(OPTION_LATENCY_SLO_MS) == null) {
+            return false;
+        }
+
+        try {
+            return Long.parseLong(options.get(OPTION_LATENCY_SLO_MS).toString()) <= tightLatencySloMs;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.springaimcpserver.service;
+
+import com.example.springaimcpserver.model.DocumentRequest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.poi.ooxml.POIXMLDocument;
+import org.apache.poi.ooxml.POIXMLProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * OOXML 패키지(xlsx, pptx)를 문서 유형별 압축 프로파일로 기록하는 컴포넌트
+ * POI 는 항상 기본 압축 수준으로 패키지를 기록하므로, 기본 프로파일의 인라인 응답은 POI 출력을 그대로 보내고
+ * 그 외의 프로파일은 POI 출력을 임시 파일에 받아 각 파트를 한 번에 하나씩 스트림으로 풀어 다시 압축합니다.
+ * 내용 해시 저장소에 저장하는 문서는 모든 파트의 수정 시각을 고정하고 문서의 생성/수정 시각을 남기지 않아
+ * 같은 내용이면 같은 바이트의 패키지가 되도록 합니다(중복 제거). 이때 기본 프로파일은 압축된 파트를 그대로 복사합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OoxmlPackageWriter {
+
+    // 이미 압축된 미디어 파트는 다시 deflate 하지 않고 그대로 저장
+    private static final Set<String> STORED_EXTENSIONS = Set.of("png", "jpg", "jpeg", "gif");
+
+    private static final int SPOOL_BUFFER_SIZE = 64 * 1024;
+
+    // 모든 파트에 기록하는 수정 시각 (zip 의 DOS 시간 최솟값, 시간대와 관계없이 같은 값으로 기록됨)
+    private static final long FIXED_ENTRY_TIME = LocalDateTime.of(1980, 1, 1, 0, 0)
+            .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("#{${app.document.compression.profiles:{excel: 'default', powerpoint: 'default'}}}")
+    private Map<String, String> profiles;
+
+    public enum Profile {
+        DEFAULT(Deflater.DEFAULT_COMPRESSION),
+        STORE(Deflater.NO_COMPRESSION),
+        FAST(Deflater.BEST_SPEED),
+        MAX(Deflater.BEST_COMPRESSION);
+
+        private final int level;
+
+        Profile(int level) {
+            this.level = level;
+        }
+
+        /**
+         * 문자열에서 프로파일을 찾습니다. 알 수 없는 값이면 DEFAULT 를 반환합니다.
+         */
+        public static Profile from(Object value) {
+            if (value == null) {
+                return DEFAULT;
+            }
+            try {
+                return Profile.valueOf(value.toString().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return DEFAULT;
+            }
+        }
+    }
+
+    /**
+     * 문서 유형의 압축 프로파일로 패키지를 기록합니다.
+     *
+     * @param documentType 문서 유형
+     * @param document     POI 문서 (XSSFWorkbook, XMLSlideShow)
+     * @param out          출력 스트림 (닫지 않음)
+     * @param normalize    내용 해시 저장소에 저장하는 경우 true (생성/수정 시각을 지우고 파트 수정 시각을 고정)
+     * @throws IOException 기록 중 오류 발생 시
+     */
+    public void write(DocumentRequest.DocumentType documentType, POIXMLDocument document,
+                      OutputStream out, boolean normalize) throws IOException {
+        write(documentType, document, document::write, out, normalize);
+    }
+
+    /**
+     * 문서를 기록하는 함수의 출력을 문서 유형의 압축 프로파일로 기록합니다.
+     * 부분 수정처럼 POI 출력의 일부 파트를 바꿔 기록할 때 사용합니다.
+     * 정규화하지 않고 프로파일이 기본값이면 임시 파일 없이 출력 스트림에 바로 기록하며, 그 외에는 POI 출력을 임시 파일에 받아
+     * 파트를 순서대로 다시 기록합니다. 기본 프로파일은 POI 가 압축한 바이트를 그대로 복사하고, 그 외에는 파트를 하나씩
+     * 스트림으로 풀어 다시 압축(inflate + deflate)하므로 파트 크기와 관계없이 압축 버퍼만큼의 메모리만 사용합니다.
+     * 프로파일별 비교를 위해 전체 시간은 documents.compression, 결과 크기는 documents.compression.size,
+     * 다시 기록한 경우 POI 출력 대비 비율은 documents.compression.ratio 메트릭으로 기록합니다.
+     *
+     * @param documentType  문서 유형
+     * @param document      POI 문서 (XSSFWorkbook, XMLSlideShow)
+     * @param packageWriter 문서 패키지 기록 함수
+     * @param out           출력 스트림 (닫지 않음)
+     * @param normalize     내용 해시 저장소에 저장하는 경우 true (생성/수정 시각을 지우고 파트 수정 시각을 고정)
+     * @throws IOException 기록 중 오류 발생 시
+     */
+    public void write(DocumentRequest.DocumentType documentType, POIXMLDocument document,
+                      DocumentWriter packageWriter, OutputStream out, boolean normalize) throws IOException {
+        Profile profile = Profile.from(profiles.get(documentType.name().toLowerCase(Locale.ROOT)));
+        Tags tags = Tags.of("type", documentType.name().toLowerCase(Locale.ROOT),
+                "profile", profile.name().toLowerCase(Locale.ROOT));
+
+        // POI 의 기록 시간까지 포함해 경로 전체 비용을 측정
+        long startTime = System.nanoTime();
+        if (!normalize && profile == Profile.DEFAULT) {
+            CountingOutputStream counting = new CountingOutputStream(CloseShieldOutputStream.wrap(out));
+            packageWriter.writeTo(counting);
+            counting.flush();
+            record(tags, System.nanoTime() - startTime, counting.getByteCount());
+            return;
+        }
+
+        if (normalize) {
+            POIXMLProperties.CoreProperties properties = document.getProperties().getCoreProperties();
+            properties.setCreated(Optional.empty());
+            properties.setModified(Optional.empty());
+        }
+
+        Path spool = Files.createTempFile("ooxml-", ".zip");
+        long spoolSize;
+        long packageSize = 0;
+        try {
+            try (OutputStream spoolOut = new BufferedOutputStream(Files.newOutputStream(spool), SPOOL_BUFFER_SIZE)) {
+                packageWriter.writeTo(spoolOut);
+            }
+            spoolSize = Files.size(spool);
+
+            try (ZipFile zipFile = new ZipFile(spool.toFile());
+                 ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(CloseShieldOutputStream.wrap(out))) {
+                if (profile != Profile.DEFAULT) {
+                    zipOut.setLevel(profile.level);
+                }
+
+                // 원래 파트 순서([Content_Types].xml 가 먼저)를 유지
+                Enumeration<ZipArchiveEntry> entries = zipFile.getEntriesInPhysicalOrder();
+                while (entries.hasMoreElements()) {
+                    packageSize += writePart(zipFile, zipOut, entries.nextElement(), profile, normalize);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+
+        long elapsed = System.nanoTime() - startTime;
+        record(tags, elapsed, packageSize);
+        if (spoolSize > 0) {
+            DistributionSummary.builder("documents.compression.ratio")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record((double) packageSize / spoolSize);
+        }
+
+        log.debug("Repacked {} package ({}, normalize={}): {} -> {} bytes in {} ms", documentType, profile,
+                normalize, spoolSize, packageSize, elapsed / 1_000_000);
+    }
+
+    private void record(Tags tags, long elapsedNanos, long size) {
+        Timer.builder("documents.compression")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("documents.compression.size")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    /**
+     * 파트를 출력 zip 에 기록하고 기록한 압축 크기를 반환합니다.
+     * 기본 프로파일이거나 이미 압축된 미디어 파트는 다시 압축하지 않고 원본 바이트를 복사합니다.
+     */
+    private static long writePart(ZipFile zipFile, ZipArchiveOutputStream zipOut, ZipArchiveEntry source,
+                                  Profile profile, boolean normalize) throws IOException {
+        String name = source.getName();
+        long time = normalize ? FIXED_ENTRY_TIME : source.getTime();
+        String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        if (profile == Profile.DEFAULT || (profile != Profile.STORE && STORED_EXTENSIONS.contains(extension))) {
+            source.setTime(time);
+            zipOut.addRawArchiveEntry(source, zipFile.getRawInputStream(source));
+            return source.getCompressedSize();
+        }
+
+        ZipArchiveEntry zipEntry = new ZipArchiveEntry(name);
+        zipEntry.setMethod(profile == Profile.STORE ? ZipEntry.STORED : ZipEntry.DEFLATED);
+        zipEntry.setTime(time);
+        // 비저장 압축은 본문 앞에 크기와 CRC 가 필요하며, 원본 파트의 값을 그대로 사용
+        zipEntry.setSize(source.getSize());
+        zipEntry.setCrc(source.getCrc());
+        zipOut.putArchiveEntry(zipEntry);
+        try (InputStream in = zipFile.getInputStream(source)) {
+            in.transferTo(zipOut);
+        }
+        zipOut.closeArchiveEntry();
+        return zipEntry.getCompressedSize();
+    }
+}
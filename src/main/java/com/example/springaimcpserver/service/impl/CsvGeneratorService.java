@@ -0,0 +1,392 @@
+package com.example.springaimcpserver.service.impl;
+
+import com.example.springaimcpserver.event.DocumentStageEvent;
+import com.example.springaimcpserver.exception.DocumentGenerationException;
+import com.example.springaimcpserver.exception.DocumentStateConflictException;
+import com.example.springaimcpserver.exception.DocumentStructureGoneException;
+import com.example.springaimcpserver.model.DocumentPatchRequest;
+import com.example.springaimcpserver.model.DocumentRequest;
+import com.example.springaimcpserver.model.DocumentResponse;
+import com.example.springaimcpserver.service.AiService;
+import com.example.springaimcpserver.service.ArtifactStore;
+import com.example.springaimcpserver.service.CheckpointStore;
+import com.example.springaimcpserver.service.DocumentGeneratorService;
+import com.example.springaimcpserver.service.DocumentJobQueue;
+import com.example.springaimcpserver.service.DocumentJobScheduler;
+import com.example.springaimcpserver.service.DocumentStatusRegistry;
+import com.example.springaimcpserver.service.DocumentStructureStore;
+import com.example.springaimcpserver.service.DocumentWriter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 대용량 표 데이터를 CSV/TSV 파일로 생성하는 서비스
+ * 워크북 모델을 거치지 않고 행을 바로 파일 채널에 기록하므로 행 수가 많아도 메모리 사용량이 일정합니다.
+ * 출력 형식은 요청 옵션 format(csv|tsv), gzip, bom 으로 지정합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CsvGeneratorService implements DocumentGeneratorService {
+
+    public static final String OPTION_FORMAT = "format";
+    public static final String OPTION_GZIP = "gzip";
+    public static final String OPTION_BOM = "bom";
+
+    private static final MediaType MEDIA_TYPE = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private static final TypeReference<List<List<String>>> STRUCTURE_TYPE = new TypeReference<>() {
+    };
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final AiService aiService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DocumentJobScheduler jobScheduler;
+    private final DocumentStatusRegistry statusRegistry;
+    private final CheckpointStore checkpointStore;
+    private final DocumentStructureStore structureStore;
+    private final Optional<DocumentJobQueue> jobQueue;
+    private final MeterRegistry meterRegistry;
+    private final ArtifactStore artifactStore;
+
+
+    @Override
+    public CompletableFuture<DocumentResponse> generateDocument(DocumentRequest request) {
+        if (request.getDocumentType() != DocumentRequest.DocumentType.CSV) {
+            throw new IllegalArgumentException("CSV 문서 생성 요청이 아닙니다.");
+        }
+
+        String documentId = UUID.randomUUID().toString();
+        DocumentResponse processingResponse = DocumentResponse.processing(documentId, request.getTitle());
+        statusRegistry.save(DocumentRequest.DocumentType.CSV, processingResponse);
+        publishStage(documentId, request, DocumentStageEvent.Stage.ACCEPTED);
+
+        // 클러스터 모드에서는 공유 작업 큐에 넣어 어느 노드든 가져가 실행하며, 결과는 상태 조회로 확인
+        if (jobQueue.isPresent()) {
+            jobQueue.get().enqueue(documentId, request);
+            return CompletableFuture.completedFuture(processingResponse);
+        }
+
+        // 모델 출력 없이 요청만 남겨, 종료로 시작하지 못한 작업도 재시작 후 CheckpointRecovery 가 다시 실행
+        checkpointStore.save(documentId, request, null);
+        return jobScheduler.submit(request, () -> generate(documentId, request))
+                .whenComplete((response, ex) -> {
+                    // generate 는 종료로 중단된 경우가 아니면 실패도 응답으로 반환하므로, 여기서 받는 예외는 대기열이 가득 차 거부된 경우
+                    if (ex != null && !jobScheduler.isShuttingDown()) {
+                        statusRegistry.save(DocumentRequest.DocumentType.CSV,
+                                DocumentResponse.failed(documentId, request.getTitle(), ex.getMessage()));
+                        checkpointStore.delete(documentId);
+                        publishStage(documentId, request, DocumentStageEvent.Stage.FAILED);
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<DocumentResponse> runQueuedJob(String documentId, DocumentRequest request) {
+        return jobScheduler.submit(request, () -> generate(documentId, request));
+    }
+
+    /**
+     * AI 로 표 데이터를 생성하고 파일로 기록합니다.
+     *
+     * @param documentId 문서 ID
+     * @param request 문서 생성 요청 객체
+     * @return 완료 또는 실패 응답
+     */
+    private DocumentResponse generate(String documentId, DocumentRequest request) {
+        try {
+            // 기록 중 중단되었던 작업은 체크포인트에 남은 모델 출력으로 기록만 다시 수행
+            Optional<List<List<String>>> checkpointed = checkpointStore.findStructure(documentId, STRUCTURE_TYPE);
+            List<List<String>> rows;
+            if (checkpointed.isPresent()) {
+                log.info("Resuming document {} from checkpoint", documentId);
+                rows = checkpointed.get();
+            } else {
+                publishStage(documentId, request, DocumentStageEvent.Stage.GENERATING_CONTENT);
+
+                rows = aiService.generateTable(request.getTitle(), request.getContent(), request.getAdditionalOptions());
+                checkpointStore.save(documentId, request, rows);
+            }
+
+            publishStage(documentId, request, DocumentStageEvent.Stage.RENDERING);
+
+            ArtifactStore.Artifact artifact = saveCsvFile(request.getTitle(), rows,
+                    TableFormat.from(request.getAdditionalOptions()));
+            structureStore.save(documentId, request, rows);
+
+            DocumentResponse completedResponse = DocumentResponse.completed(
+                    documentId, request.getTitle(), artifact.fileName(), artifact.contentHash());
+
+            statusRegistry.save(DocumentRequest.DocumentType.CSV, completedResponse);
+            checkpointStore.delete(documentId);
+            publishStage(documentId, request, DocumentStageEvent.Stage.COMPLETED);
+            return completedResponse;
+
+        } catch (Exception e) {
+            if (jobScheduler.isShutdownInterruption(e)) {
+                // 종료로 중단된 작업은 실패로 기록하지 않고 체크포인트를 남겨 재시작 후(또는 다른 노드에서) 이어서 처리
+                log.warn("Document {} interrupted by shutdown: {}", documentId, e.getMessage());
+                throw new RejectedExecutionException("서버 종료로 작업이 중단되었습니다.");
+            }
+            log.error("문서 생성 중 오류 발생: {}", e.getMessage(), e);
+            DocumentResponse failedResponse = DocumentResponse.failed(
+                    documentId, request.getTitle(), e.getMessage());
+            statusRegistry.save(DocumentRequest.DocumentType.CSV, failedResponse);
+            checkpointStore.delete(documentId);
+            publishStage(documentId, request, DocumentStageEvent.Stage.FAILED);
+            return failedResponse;
+        }
+    }
+
+    /**
+     * CSV 는 시트 구분이 없으므로 수정 지시에 따라 표 전체를 다시 생성합니다.
+     */
+    @Override
+    public CompletableFuture<DocumentResponse> patchDocument(String documentId, DocumentPatchRequest patch) {
+        DocumentResponse current = getDocumentStatus(documentId);
+        if (current.getStatus() != DocumentResponse.DocumentStatus.COMPLETED) {
+            throw new DocumentStateConflictException("생성이 완료된 문서만 수정할 수 있습니다.");
+        }
+        DocumentStructureStore.Structure<List<List<String>>> generated =
+                structureStore.find(documentId, STRUCTURE_TYPE)
+                        .orElseThrow(() -> new DocumentStructureGoneException("부분 수정에 필요한 원본 구조가 없는 문서입니다."));
+
+        // 완료 상태에서 처리 중으로 바꾸는 데 성공한 요청만 진행하여 같은 문서에 대한 동시 수정을 막음
+        if (!statusRegistry.replaceIfStatus(DocumentRequest.DocumentType.CSV, documentId,
+                DocumentResponse.DocumentStatus.COMPLETED, DocumentResponse.processing(documentId, current.getTitle()))) {
+            throw new DocumentStateConflictException("이미 수정 중인 문서입니다.");
+        }
+
+        DocumentRequest request = generated.request();
+        publishStage(documentId, request, DocumentStageEvent.Stage.ACCEPTED);
+
+        return jobScheduler.submit(request, () -> {
+            try {
+                publishStage(documentId, request, DocumentStageEvent.Stage.GENERATING_CONTENT);
+
+                List<List<String>> rows = aiService.regenerateTable(request.getTitle(), generated.structure(),
+                        patch.getInstruction(), request.getAdditionalOptions());
+
+                publishStage(documentId, request, DocumentStageEvent.Stage.RENDERING);
+
+                ArtifactStore.Artifact artifact = saveCsvFile(request.getTitle(), rows,
+                        TableFormat.from(request.getAdditionalOptions()));
+                structureStore.save(documentId, request, rows);
+
+                DocumentResponse completedResponse = DocumentResponse.completed(
+                        documentId, request.getTitle(), artifact.fileName(), artifact.contentHash());
+
+                statusRegistry.save(DocumentRequest.DocumentType.CSV, completedResponse);
+                artifactStore.release(current.getContentHash());
+                publishStage(documentId, request, DocumentStageEvent.Stage.COMPLETED);
+                return completedResponse;
+
+            } catch (Exception e) {
+                log.error("문서 수정 중 오류 발생: {}", e.getMessage(), e);
+                // 수정에 실패해도 기존 문서는 그대로 사용할 수 있도록 이전 상태로 되돌림
+                statusRegistry.save(DocumentRequest.DocumentType.CSV, current);
+                publishStage(documentId, request, DocumentStageEvent.Stage.FAILED);
+                return DocumentResponse.failed(documentId, request.getTitle(), e.getMessage());
+            }
+        }).whenComplete((response, ex) -> {
+            // 대기열이 가득 차거나 종료 중이어서 실행되지 못한 수정은 처리 중 상태로 남지 않도록 이전 상태로 되돌림
+            if (ex != null) {
+                statusRegistry.save(DocumentRequest.DocumentType.CSV, current);
+                publishStage(documentId, request, DocumentStageEvent.Stage.FAILED);
+            }
+        });
+    }
+
+    /**
+     * 응답 본문으로 바로 기록할 때는 Content-Type 과 맞도록 항상 압축하지 않은 CSV 로 기록합니다.
+     * 전송 구간 압축은 서버의 응답 압축 설정에 맡깁니다.
+     */
+    @Override
+    public CompletableFuture<DocumentWriter> renderInline(DocumentRequest request) {
+        if (request.getDocumentType() != DocumentRequest.DocumentType.CSV) {
+            throw new IllegalArgumentException("CSV 문서 생성 요청이 아닙니다.");
+        }
+
+        TableFormat format = TableFormat.from(request.getAdditionalOptions()).forInline();
+        return jobScheduler.submit(request, () -> {
+            List<List<String>> rows = aiService.generateTable(
+                    request.getTitle(), request.getContent(), request.getAdditionalOptions());
+            DocumentWriter writer = out -> writeRows(rows, format, Channels.newChannel(out));
+            return writer;
+        });
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public MediaType getMediaType(String fileName) {
+        return mediaTypeOf(fileName);
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".csv";
+    }
+
+    @Override
+    public void warmUp() {
+        List<List<String>> sample = List.of(
+                List.of("항목", "값", "비고"),
+                List.of("A", "1", "샘플, \"따옴표\""),
+                List.of("B", "2", "샘플"));
+        try {
+            writeRows(sample, TableFormat.from(null), Channels.newChannel(OutputStream.nullOutputStream()));
+        } catch (IOException e) {
+            throw new DocumentGenerationException("CSV 워밍업 실패: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public DocumentResponse getDocumentStatus(String documentId) {
+        return statusRegistry.find(DocumentRequest.DocumentType.CSV, documentId)
+                .orElseGet(() -> DocumentResponse.failed(documentId, "Unknown", "문서를 찾을 수 없습니다."));
+    }
+
+    /**
+     * 확장자에 맞는 다운로드 Content-Type 을 반환합니다.
+     *
+     * @param fileName 파일 이름
+     * @return Content-Type
+     */
+    private static MediaType mediaTypeOf(String fileName) {
+        if (fileName.endsWith(".gz")) {
+            return MediaType.parseMediaType("application/gzip");
+        }
+        if (fileName.endsWith(".tsv")) {
+            return MediaType.parseMediaType("text/tab-separated-values;charset=UTF-8");
+        }
+        return MEDIA_TYPE;
+    }
+
+    /**
+     * 문서 생성 단계 변경 이벤트를 발행합니다.
+     */
+    private void publishStage(String documentId, DocumentRequest request, DocumentStageEvent.Stage stage) {
+        eventPublisher.publishEvent(new DocumentStageEvent(this, documentId, request, stage));
+    }
+
+    /**
+     * 표 데이터를 내용 해시로 저장하고 기록 시간과 파일 크기를 기록합니다.
+     * 압축하지 않는 경우 인코딩 버퍼를 파일 채널에 바로 기록합니다.
+     *
+     * @param title 문서 제목
+     * @param rows 헤더를 포함한 행 데이터
+     * @param format 출력 형식
+     * @return 저장된 파일 정보
+     * @throws DocumentGenerationException 문서 생성 중 오류 발생 시
+     */
+    private ArtifactStore.Artifact saveCsvFile(String title, List<List<String>> rows, TableFormat format)
+            throws DocumentGenerationException {
+        // 파일 이름 생성 (현재 시간 포함)
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String safeName = title.replaceAll("[^a-zA-Z0-9가-힣]", "_");
+        String fileName = safeName + "_" + timestamp + format.extension();
+
+        long startTime = System.nanoTime();
+        long[] rowCount = new long[1];
+        ArtifactStore.Artifact artifact;
+        try {
+            artifact = artifactStore.storeFromChannel(fileName, channel -> {
+                if (format.gzip()) {
+                    // 채널은 저장소가 닫으므로 압축 스트림만 닫아 Deflater 의 네이티브 메모리를 바로 해제
+                    try (GZIPOutputStream gzip = new GZIPOutputStream(
+                            CloseShieldOutputStream.wrap(Channels.newOutputStream(channel)), GZIP_BUFFER_SIZE)) {
+                        rowCount[0] = writeRows(rows, format, Channels.newChannel(gzip));
+                    }
+                } else {
+                    rowCount[0] = writeRows(rows, format, channel);
+                }
+            });
+        } catch (IOException e) {
+            throw new DocumentGenerationException("CSV 파일 생성 실패: " + e.getMessage(), e);
+        }
+
+        long elapsed = System.nanoTime() - startTime;
+        Timer.builder("documents.render")
+                .tag("type", "csv")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("documents.output.size")
+                .tag("type", "csv")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(artifact.size());
+
+        log.info("Rendered {} ({} rows, {} bytes) in {} ms", fileName, rowCount[0], artifact.size(), elapsed / 1_000_000);
+        return artifact;
+    }
+
+    /**
+     * 행 데이터를 채널에 기록합니다.
+     *
+     * @return 기록한 행 수
+     */
+    private long writeRows(List<List<String>> rows, TableFormat format, WritableByteChannel channel) throws IOException {
+        try (CsvWriter writer = new CsvWriter(channel, format.delimiter(), format.bom())) {
+            for (List<String> row : rows) {
+                writer.writeRow(row);
+            }
+            return writer.getRowCount();
+        }
+    }
+
+    /**
+     * 요청 옵션으로 지정한 출력 형식
+     */
+    private record TableFormat(boolean tsv, boolean gzip, boolean bom) {
+
+        static TableFormat from(Map<String, Object> options) {
+            if (options == null) {
+                return new TableFormat(false, false, false);
+            }
+            return new TableFormat(
+                    "tsv".equalsIgnoreCase(String.valueOf(options.get(OPTION_FORMAT))),
+                    Boolean.parseBoolean(String.valueOf(options.get(OPTION_GZIP))),
+                    Boolean.parseBoolean(String.valueOf(options.get(OPTION_BOM))));
+        }
+
+        TableFormat forInline() {
+            return new TableFormat(false, false, bom);
+        }
+
+        char delimiter() {
+            return tsv ? '\t' : ',';
+        }
+
+        String extension() {
+            return (tsv ? ".tsv" : ".csv") + (gzip ? ".gz" : "");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.springaimcpserver.service.impl;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 스트리밍 CSV/TSV 행 리더 (RFC 4180)
+ * 따옴표로 감싼 필드, 이스케이프된 따옴표, 필드 내 줄바꿈을 처리하며 한 번에 한 행만 메모리에 유지합니다.
+ * 닫히지 않은 따옴표나 엑셀 셀/열 한도를 넘는 필드는 입력 오류(IllegalArgumentException)로 처리하여
+ * 잘못된 입력이 한 행에 끝까지 쌓이지 않도록 합니다.
+ */
+class CsvRowReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // 엑셀 셀 하나에 넣을 수 있는 최대 글자 수
+    static final int MAX_FIELD_LENGTH = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+
+    // 엑셀 시트의 최대 열 수
+    static final int MAX_FIELDS = SpreadsheetVersion.EXCEL2007.getMaxColumns();
+
+    private final Reader reader;
+    private final char delimiter;
+    private boolean firstRead = true;
+    private int pushedBack = -1;
+    private long rowNumber;
+
+    CsvRowReader(Reader reader, char delimiter) {
+        this.reader = new BufferedReader(reader, BUFFER_SIZE);
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * 다음 행을 읽습니다.
+     *
+     * @return 필드 목록 (입력이 끝나면 null)
+     * @throws IOException              입력을 읽는 중 오류 발생 시
+     * @throws IllegalArgumentException 따옴표가 닫히지 않았거나 필드가 너무 길거나 많은 경우
+     */
+    List<String> readRow() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        rowNumber++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException(rowNumber + "번째 행의 따옴표가 닫히지 않았습니다.");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == delimiter) {
+                addField(fields, field);
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                addField(fields, field);
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+
+            if (field.length() > MAX_FIELD_LENGTH) {
+                throw new IllegalArgumentException(
+                        rowNumber + "번째 행에 " + MAX_FIELD_LENGTH + "자를 넘는 필드가 있습니다.");
+            }
+            c = read();
+        }
+    }
+
+    private void addField(List<String> fields, StringBuilder field) {
+        if (fields.size() >= MAX_FIELDS) {
+            throw new IllegalArgumentException(rowNumber + "번째 행의 열이 " + MAX_FIELDS + "개를 넘습니다.");
+        }
+        fields.add(field.toString());
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+
+        int c = reader.read();
+        if (firstRead) {
+            firstRead = false;
+            // UTF-8 BOM 제거
+            if (c == '\uFEFF') {
+                c = reader.read();
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
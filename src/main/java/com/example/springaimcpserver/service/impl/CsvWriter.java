@@ -0,0 +1,127 @@
+package com.example.springaimcpserver.service.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 행 데이터를 RFC 4180 형식의 CSV/TSV 로 채널에 기록하는 writer
+ * 행 문자열을 direct 버퍼에 바로 UTF-8 로 인코딩하고 버퍼가 차면 채널에 쓰므로,
+ * 파일 채널에 기록할 때는 중간 byte[] 복사 없이 커널로 전달됩니다.
+ * 채널은 호출한 쪽에서 닫습니다.
+ */
+final class CsvWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    private final WritableByteChannel channel;
+    private final char delimiter;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final StringBuilder line = new StringBuilder(256);
+
+    private long rowCount;
+
+    /**
+     * @param channel   출력 채널
+     * @param delimiter 열 구분자 (',' 또는 '\t')
+     * @param bom       UTF-8 BOM 기록 여부 (엑셀에서 한글 CSV 를 열 때 필요)
+     */
+    CsvWriter(WritableByteChannel channel, char delimiter, boolean bom) throws IOException {
+        this.channel = channel;
+        this.delimiter = delimiter;
+        if (bom) {
+            encode(CharBuffer.wrap("\uFEFF"));
+        }
+    }
+
+    /**
+     * 한 행을 기록합니다. 구분자, 따옴표, 줄바꿈이 포함된 값은 따옴표로 감쌉니다.
+     *
+     * @param cells 셀 값 목록
+     * @throws IOException 기록 중 오류 발생 시
+     */
+    void writeRow(List<String> cells) throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0) {
+                line.append(delimiter);
+            }
+            appendCell(cells.get(i));
+        }
+        line.append(LINE_SEPARATOR);
+
+        encode(CharBuffer.wrap(line));
+        rowCount++;
+    }
+
+    long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 남은 버퍼를 채널에 기록합니다. 채널은 닫지 않습니다.
+     */
+    @Override
+    public void close() throws IOException {
+        encoder.encode(CharBuffer.allocate(0), buffer, true);
+        encoder.flush(buffer);
+        flushBuffer();
+    }
+
+    private void appendCell(String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == delimiter || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private void encode(CharBuffer chars) throws IOException {
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, false);
+            if (result.isOverflow()) {
+                flushBuffer();
+            } else {
+                break;
+            }
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -1,46 +1,91 @@
 package com.example.springaimcpserver.service.impl;
 
+import com.example.springaimcpserver.event.DocumentStageEvent;
 import com.example.springaimcpserver.exception.DocumentGenerationException;
+import com.example.springaimcpserver.exception.DocumentStateConflictException;
+import com.example.springaimcpserver.exception.DocumentStructureGoneException;
+import com.example.springaimcpserver.model.DocumentPatchRequest;
 import com.example.springaimcpserver.model.DocumentRequest;
 import com.example.springaimcpserver.model.DocumentResponse;
 import com.example.springaimcpserver.service.AiService;
+import com.example.springaimcpserver.service.ArtifactStore;
+import com.example.springaimcpserver.service.CheckpointStore;
 import com.example.springaimcpserver.service.DocumentGeneratorService;
+import com.example.springaimcpserver.service.DocumentJobQueue;
+import com.example.springaimcpserver.service.DocumentJobScheduler;
+import com.example.springaimcpserver.service.DocumentStatusRegistry;
+import com.example.springaimcpserver.service.DocumentStructureStore;
+import com.example.springaimcpserver.service.DocumentWriter;
+import com.example.springaimcpserver.service.OoxmlPackageWriter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ExcelGeneratorService implements DocumentGeneratorService {
 
+    private static final MediaType MEDIA_TYPE =
+            MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private static final String FONT_NAME = "맑은 고딕";
+
+    private static final String WORKSHEET_PART_PREFIX = "xl/worksheets/";
+
+    // 부분 수정 시 시트 데이터 대신 읽어 들이는 빈 워크시트
+    private static final byte[] EMPTY_WORKSHEET =
+            "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData/></worksheet>"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private static final TypeReference<Map<String, List<List<String>>>> STRUCTURE_TYPE = new TypeReference<>() {
+    };
+
     private final AiService aiService;
-    
-    @Value("${app.document.temp-dir}")
-    private String tempDir;
-    
-    // 문서 상태를 저장하는 인메모리 저장소
-    private final Map<String, DocumentResponse> documentStatusMap = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher eventPublisher;
+    private final DocumentJobScheduler jobScheduler;
+    private final DocumentStatusRegistry statusRegistry;
+    private final CheckpointStore checkpointStore;
+    private final DocumentStructureStore structureStore;
+    private final Optional<DocumentJobQueue> jobQueue;
+    private final MeterRegistry meterRegistry;
+    private final OoxmlPackageWriter packageWriter;
+    private final ArtifactStore artifactStore;
+
+    // true 이면 모델이 생성한 '=' 로 시작하는 값을 수식 셀로 기록, 기본은 수식 주입을 막기 위해 문자열로 기록
+    @Value("${app.document.excel.allow-formulas:false}")
+    private boolean allowFormulas;
 
     @Override
-    @Async
     public CompletableFuture<DocumentResponse> generateDocument(DocumentRequest request) {
         if (request.getDocumentType() != DocumentRequest.DocumentType.EXCEL) {
             throw new IllegalArgumentException("엑셀 문서 생성 요청이 아닙니다.");
@@ -48,41 +93,216 @@ public class ExcelGeneratorService implements DocumentGeneratorService {
 
         String documentId = UUID.randomUUID().toString();
         DocumentResponse processingResponse = DocumentResponse.processing(documentId, request.getTitle());
-        documentStatusMap.put(documentId, processingResponse);
+        statusRegistry.save(DocumentRequest.DocumentType.EXCEL, processingResponse);
+        publishStage(documentId, request, DocumentStageEvent.Stage.ACCEPTED);
+
+        // 클러스터 모드에서는 공유 작업 큐에 넣어 어느 노드든 가져가 실행하며, 결과는 상태 조회로 확인
+        if (jobQueue.isPresent()) {
+            jobQueue.get().enqueue(documentId, request);
+            return CompletableFuture.completedFuture(processingResponse);
+        }
+
+        // 모델 출력 없이 요청만 남겨, 종료로 시작하지 못한 작업도 재시작 후 CheckpointRecovery 가 다시 실행
+        checkpointStore.save(documentId, request, null);
+        return jobScheduler.submit(request, () -> generate(documentId, request))
+                .whenComplete((response, ex) -> {
+                    // generate 는 종료로 중단된 경우가 아니면 실패도 응답으로 반환하므로, 여기서 받는 예외는 대기열이 가득 차 거부된 경우
+                    if (ex != null && !jobScheduler.isShuttingDown()) {
+                        statusRegistry.save(DocumentRequest.DocumentType.EXCEL,
+                                DocumentResponse.failed(documentId, request.getTitle(), ex.getMessage()));
+                        checkpointStore.delete(documentId);
+                        publishStage(documentId, request, DocumentStageEvent.Stage.FAILED);
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<DocumentResponse> runQueuedJob(String documentId, DocumentRequest request) {
+        return jobScheduler.submit(request, () -> generate(documentId, request));
+    }
+
+    /**
+     * AI 로 문서 구조를 생성하고 파일로 렌더링합니다.
+     *
+     * @param documentId 문서 ID
+     * @param request 문서 생성 요청 객체
+     * @return 완료 또는 실패 응답
+     */
+    private DocumentResponse generate(String documentId, DocumentRequest request) {
+        try {
+            // 렌더링 중 중단되었던 작업은 체크포인트에 남은 모델 출력으로 렌더링만 다시 수행
+            Optional<Map<String, List<List<String>>>> checkpointed = checkpointStore.findStructure(documentId, STRUCTURE_TYPE);
+            Map<String, List<List<String>>> excelStructure;
+            if (checkpointed.isPresent()) {
+                log.info("Resuming document {} from checkpoint", documentId);
+                excelStructure = checkpointed.get();
+            } else {
+                publishStage(documentId, request, DocumentStageEvent.Stage.GENERATING_CONTENT);
 
-        return CompletableFuture.supplyAsync(() -> {
-            try {
                 // AI 서비스를 통해 엑셀 구조 생성
-                Map<String, List<List<String>>> excelStructure = aiService.generateExcelStructure(
-                        request.getTitle(), request.getContent());
-                
-                // 실제 엑셀 파일 생성
-                String fileName = createExcelFile(request.getTitle(), excelStructure);
-                
-                // 완료 응답 생성
-                String fileUrl = "/api/documents/excel/" + fileName;
-                String downloadUrl = "/api/documents/excel/download/" + fileName;
-                
+                excelStructure = aiService.generateExcelStructure(
+                        request.getTitle(), request.getContent(), request.getAdditionalOptions());
+                checkpointStore.save(documentId, request, excelStructure);
+            }
+            
+            publishStage(documentId, request, DocumentStageEvent.Stage.RENDERING);
+
+            // 실제 엑셀 파일 생성
+            ArtifactStore.Artifact artifact = createExcelFile(request.getTitle(), excelStructure);
+            structureStore.save(documentId, request, excelStructure);
+            
+            // 완료 응답 생성
+            DocumentResponse completedResponse = DocumentResponse.completed(
+                    documentId, request.getTitle(), artifact.fileName(), artifact.contentHash());
+            
+            statusRegistry.save(DocumentRequest.DocumentType.EXCEL, completedResponse);
+            checkpointStore.delete(documentId);
+            publishStage(documentId, request, DocumentStageEvent.Stage.COMPLETED);
+            return completedResponse;
+            
+        } catch (Exception e) {
+            if (jobScheduler.isShutdownInterruption(e)) {
+                // 종료로 중단된 작업은 실패로 기록하지 않고 체크포인트를 남겨 재시작 후(또는 다른 노드에서) 이어서 처리
+                log.warn("Document {} interrupted by shutdown: {}", documentId, e.getMessage());
+                throw new RejectedExecutionException("서버 종료로 작업이 중단되었습니다.");
+            }
+            log.error("문서 생성 중 오류 발생: {}", e.getMessage(), e);
+            DocumentResponse failedResponse = DocumentResponse.failed(
+                    documentId, request.getTitle(), e.getMessage());
+            statusRegistry.save(DocumentRequest.DocumentType.EXCEL, failedResponse);
+            checkpointStore.delete(documentId);
+            publishStage(documentId, request, DocumentStageEvent.Stage.FAILED);
+            return failedResponse;
+        }
+    }
+
+    @Override
+    public CompletableFuture<DocumentResponse> patchDocument(String documentId, DocumentPatchRequest patch) {
+        if (patch.getSheets() == null || patch.getSheets().isEmpty()) {
+            throw new IllegalArgumentException("다시 생성할 시트를 지정해야 합니다.");
+        }
+
+        DocumentResponse current = getDocumentStatus(documentId);
+        if (current.getStatus() != DocumentResponse.DocumentStatus.COMPLETED) {
+            throw new DocumentStateConflictException("생성이 완료된 문서만 수정할 수 있습니다.");
+        }
+        DocumentStructureStore.Structure<Map<String, List<List<String>>>> generated =
+                structureStore.find(documentId, STRUCTURE_TYPE)
+                        .orElseThrow(() -> new DocumentStructureGoneException("부분 수정에 필요한 원본 구조가 없는 문서입니다."));
+
+        // 완료 상태에서 처리 중으로 바꾸는 데 성공한 요청만 진행하여 같은 문서에 대한 동시 수정을 막음
+        if (!statusRegistry.replaceIfStatus(DocumentRequest.DocumentType.EXCEL, documentId,
+                DocumentResponse.DocumentStatus.COMPLETED, DocumentResponse.processing(documentId, current.getTitle()))) {
+            throw new DocumentStateConflictException("이미 수정 중인 문서입니다.");
+        }
+
+        DocumentRequest request = generated.request();
+        publishStage(documentId, request, DocumentStageEvent.Stage.ACCEPTED);
+
+        return jobScheduler.submit(request, () -> {
+            try {
+                publishStage(documentId, request, DocumentStageEvent.Stage.GENERATING_CONTENT);
+
+                // 대상 시트만 AI 로 다시 생성
+                Map<String, List<List<String>>> changedSheets = new LinkedHashMap<>();
+                for (String sheetName : patch.getSheets()) {
+                    List<List<String>> currentRows = generated.structure().getOrDefault(sheetName, List.of());
+                    changedSheets.put(sheetName, aiService.regenerateExcelSheet(request.getTitle(), sheetName,
+                            currentRows, patch.getInstruction(), request.getAdditionalOptions()));
+                }
+
+                publishStage(documentId, request, DocumentStageEvent.Stage.RENDERING);
+
+                // 기존 파일을 열어 대상 시트만 교체
+                File sourceFile = artifactStore.resolve(current).toFile();
+                ArtifactStore.Artifact artifact = saveExcelFile(request.getTitle(),
+                        out -> patchWorkbook(sourceFile, changedSheets, out));
+
+                Map<String, List<List<String>>> sheets = new LinkedHashMap<>(generated.structure());
+                sheets.putAll(changedSheets);
+                structureStore.save(documentId, request, sheets);
+
                 DocumentResponse completedResponse = DocumentResponse.completed(
-                        documentId, request.getTitle(), fileName, fileUrl, downloadUrl);
-                
-                documentStatusMap.put(documentId, completedResponse);
+                        documentId, request.getTitle(), artifact.fileName(), artifact.contentHash());
+
+                statusRegistry.save(DocumentRequest.DocumentType.EXCEL, completedResponse);
+                artifactStore.release(current.getContentHash());
+                publishStage(documentId, request, DocumentStageEvent.Stage.COMPLETED);
                 return completedResponse;
-                
+
             } catch (Exception e) {
-                log.error("문서 생성 중 오류 발생: {}", e.getMessage(), e);
-                DocumentResponse failedResponse = DocumentResponse.failed(
-                        documentId, request.getTitle(), e.getMessage());
-                documentStatusMap.put(documentId, failedResponse);
-                return failedResponse;
+                log.error("문서 수정 중 오류 발생: {}", e.getMessage(), e);
+                // 수정에 실패해도 기존 문서는 그대로 사용할 수 있도록 이전 상태로 되돌림
+                statusRegistry.save(DocumentRequest.DocumentType.EXCEL, current);
+                publishStage(documentId, request, DocumentStageEvent.Stage.FAILED);
+                return DocumentResponse.failed(documentId, request.getTitle(), e.getMessage());
+            }
+        }).whenComplete((response, ex) -> {
+            // 대기열이 가득 차거나 종료 중이어서 실행되지 못한 수정은 처리 중 상태로 남지 않도록 이전 상태로 되돌림
+            if (ex != null) {
+                statusRegistry.save(DocumentRequest.DocumentType.EXCEL, current);
+                publishStage(documentId, request, DocumentStageEvent.Stage.FAILED);
             }
         });
     }
 
+    @Override
+    public CompletableFuture<DocumentWriter> renderInline(DocumentRequest request) {
+        if (request.getDocumentType() != DocumentRequest.DocumentType.EXCEL) {
+            throw new IllegalArgumentException("엑셀 문서 생성 요청이 아닙니다.");
+        }
+
+        return jobScheduler.submit(request, () -> {
+            Map<String, List<List<String>>> excelStructure = aiService.generateExcelStructure(
+                    request.getTitle(), request.getContent(), request.getAdditionalOptions());
+            DocumentWriter writer = out -> writeWorkbook(excelStructure, out, false);
+            return writer;
+        });
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".xlsx";
+    }
+
+    @Override
+    public void warmUp() {
+        Map<String, List<List<String>>> sample = Map.of("Warmup", List.of(
+                List.of("항목", "값", "비고"),
+                List.of("A", "1", "샘플"),
+                List.of("B", "2", "샘플")));
+        try {
+            writeWorkbook(sample, OutputStream.nullOutputStream(), true);
+        } catch (IOException e) {
+            throw new DocumentGenerationException("엑셀 워밍업 실패: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public DocumentResponse getDocumentStatus(String documentId) {
-        return documentStatusMap.getOrDefault(documentId, 
-                DocumentResponse.failed(documentId, "Unknown", "문서를 찾을 수 없습니다."));
+        return statusRegistry.find(DocumentRequest.DocumentType.EXCEL, documentId)
+                .orElseGet(() -> DocumentResponse.failed(documentId, "Unknown", "문서를 찾을 수 없습니다."));
+    }
+
+    /**
+     * 다른 경로(데이터 직접 적재 등)로 만든 엑셀 문서의 상태를 등록합니다.
+     *
+     * @param response 문서 상태
+     */
+    public void registerDocument(DocumentResponse response) {
+        statusRegistry.save(DocumentRequest.DocumentType.EXCEL, response);
+    }
+
+    /**
+     * 문서 생성 단계 변경 이벤트를 발행합니다.
+     */
+    private void publishStage(String documentId, DocumentRequest request, DocumentStageEvent.Stage stage) {
+        eventPublisher.publishEvent(new DocumentStageEvent(this, documentId, request, stage));
     }
 
     /**
@@ -90,122 +310,281 @@ public class ExcelGeneratorService implements DocumentGeneratorService {
      * 
      * @param title 문서 제목
      * @param sheetData 시트 데이터
-     * @return 생성된 파일 이름
+     * @return 저장된 파일 정보
      * @throws DocumentGenerationException 문서 생성 중 오류 발생 시
      */
-    private String createExcelFile(String title, Map<String, List<List<String>>> sheetData) throws DocumentGenerationException {
+    private ArtifactStore.Artifact createExcelFile(String title, Map<String, List<List<String>>> sheetData) throws DocumentGenerationException {
+        return saveExcelFile(title, out -> writeWorkbook(sheetData, out, true));
+    }
+
+    /**
+     * 엑셀 파일을 내용 해시로 저장하고 렌더링 시간과 파일 크기를 기록합니다.
+     *
+     * @param title 문서 제목
+     * @param writer 워크북 기록 함수
+     * @return 저장된 파일 정보
+     * @throws DocumentGenerationException 문서 생성 중 오류 발생 시
+     */
+    private ArtifactStore.Artifact saveExcelFile(String title, DocumentWriter writer) throws DocumentGenerationException {
         // 파일 이름 생성 (현재 시간 포함)
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
         String safeName = title.replaceAll("[^a-zA-Z0-9가-힣]", "_");
         String fileName = safeName + "_" + timestamp + ".xlsx";
         
-        // 임시 디렉토리 확인
-        Path dirPath = Paths.get(tempDir);
-        if (!Files.exists(dirPath)) {
-            try {
-                Files.createDirectories(dirPath);
-            } catch (IOException e) {
-                throw new DocumentGenerationException("임시 디렉토리 생성 실패: " + e.getMessage(), e);
-            }
-        }
-        
         // 엑셀 파일 생성
-        try (Workbook workbook = new XSSFWorkbook()) {
+        long startTime = System.nanoTime();
+        ArtifactStore.Artifact artifact;
+        try {
+            artifact = artifactStore.store(fileName, writer);
+        } catch (IOException e) {
+            throw new DocumentGenerationException("엑셀 파일 생성 실패: " + e.getMessage(), e);
+        }
+
+        long elapsed = System.nanoTime() - startTime;
+        Timer.builder("documents.render")
+                .tag("type", "excel")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("documents.output.size")
+                .tag("type", "excel")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(artifact.size());
+
+        log.info("Rendered {} ({} bytes) in {} ms", fileName, artifact.size(), elapsed / 1_000_000);
+        return artifact;
+    }
+
+    /**
+     * 엑셀 워크북을 생성하여 출력 스트림에 기록합니다.
+     * 
+     * @param sheetData 시트 데이터
+     * @param out 출력 스트림
+     * @param normalize 내용 해시 저장소에 저장하는 경우 true (인라인 응답은 POI 출력을 그대로 전송)
+     * @throws IOException 기록 중 오류 발생 시
+     */
+    private void writeWorkbook(Map<String, List<List<String>>> sheetData, OutputStream out,
+                               boolean normalize) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
             // 기본 스타일 설정
             CellStyle headerStyle = createHeaderStyle(workbook);
             CellStyle defaultStyle = createDefaultStyle(workbook);
+            TypedCellWriter cellWriter = new TypedCellWriter(workbook, defaultStyle, allowFormulas);
             
             // 각 시트 생성
             for (Map.Entry<String, List<List<String>>> entry : sheetData.entrySet()) {
-                String sheetName = entry.getKey();
-                List<List<String>> rows = entry.getValue();
+                Sheet sheet = workbook.createSheet(entry.getKey());
+                writeSheet(sheet, entry.getValue(), headerStyle, cellWriter);
+            }
+            
+            log.debug("Typed cells written: {}", cellWriter.summary());
+            packageWriter.write(DocumentRequest.DocumentType.EXCEL, workbook, out, normalize);
+        }
+    }
+
+    /**
+     * 시트에 행 데이터를 기록하고 열 너비를 조정합니다.
+     *
+     * @param sheet 대상 시트
+     * @param rows 헤더를 포함한 행 데이터
+     * @param headerStyle 헤더 셀 스타일
+     * @param cellWriter 데이터 셀 writer
+     */
+    private void writeSheet(Sheet sheet, List<List<String>> rows, CellStyle headerStyle, TypedCellWriter cellWriter) {
+        // 모델이 빈 시트를 반환하면 빈 시트로 둠
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        // 고유 값이 많은 문자열 열은 공유 문자열 테이블을 거치지 않도록 인라인 문자열로 기록
+        boolean[] inlineColumns = TypedCellWriter.inlineColumns(rows);
+        
+        // 데이터 입력
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = sheet.createRow(i);
+            List<String> cells = rows.get(i);
+            
+            for (int j = 0; j < cells.size(); j++) {
+                Cell cell = row.createCell(j);
                 
+                // 첫 번째 행에는 헤더 스타일 적용, 데이터 행은 숫자/날짜/불리언(허용 시 수식) 판별 후 기록
+                if (i == 0) {
+                    cell.setCellValue(cells.get(j));
+                    cell.setCellStyle(headerStyle);
+                } else {
+                    cellWriter.write(cell, cells.get(j), inlineColumns[j]);
+                }
+            }
+        }
+        
+        // 열 너비 자동 조정
+        for (int i = 0; i < rows.get(0).size(); i++) {
+            sheet.autoSizeColumn(i);
+            // 최소 너비 설정
+            int currentWidth = sheet.getColumnWidth(i);
+            if (currentWidth < 3000) {
+                sheet.setColumnWidth(i, 3000);
+            } else if (currentWidth > 15000) {
+                sheet.setColumnWidth(i, 15000);
+            }
+        }
+    }
+
+    /**
+     * 기존 엑셀 파일에서 지정한 시트만 교체한 워크북을 출력 스트림에 기록합니다.
+     * 워크시트 파트를 빈 시트로 바꾼 패키지만 POI 로 읽어 교체할 시트를 기록하고, 바뀌지 않은 시트 파트는
+     * 원본 파일의 압축된 바이트를 그대로 복사하므로 시트 수나 크기와 관계없이 교체한 시트만 파싱/직렬화합니다.
+     * 헤더/데이터 스타일과 글꼴은 기존 워크북의 것을 재사용하므로 여러 번 수정해도 스타일 수가 늘지 않습니다.
+     * 공유 문자열은 뒤에 추가만 되므로 바뀌지 않은 시트가 참조하는 위치는 그대로 유지됩니다.
+     *
+     * @param sourceFile 기존 엑셀 파일 (내용 해시 저장소의 파일이므로 기록 중에 바뀌지 않음)
+     * @param changedSheets 교체할 시트 데이터 (없는 시트는 마지막에 추가)
+     * @param out 출력 스트림
+     * @throws IOException 기록 중 오류 발생 시
+     */
+    private void patchWorkbook(File sourceFile, Map<String, List<List<String>>> changedSheets,
+                               OutputStream out) throws IOException {
+        try (ZipFile source = new ZipFile(sourceFile);
+             XSSFWorkbook workbook = openWithoutSheetData(source)) {
+            // 바뀌지 않은 시트의 파트 이름 (zip 항목 이름이므로 앞의 '/' 제외)
+            Set<String> unchangedParts = new HashSet<>();
+            for (Sheet sheet : workbook) {
+                if (!changedSheets.containsKey(sheet.getSheetName())) {
+                    unchangedParts.add(((XSSFSheet) sheet).getPackagePart().getPartName().getName().substring(1));
+                }
+            }
+
+            CellStyle headerStyle = createHeaderStyle(workbook);
+            CellStyle defaultStyle = createDefaultStyle(workbook);
+            TypedCellWriter cellWriter = new TypedCellWriter(workbook, defaultStyle, allowFormulas);
+
+            for (Map.Entry<String, List<List<String>>> entry : changedSheets.entrySet()) {
+                String sheetName = entry.getKey();
+                int index = workbook.getSheetIndex(sheetName);
+                if (index >= 0) {
+                    workbook.removeSheetAt(index);
+                }
+
                 Sheet sheet = workbook.createSheet(sheetName);
-                
-                // 데이터 입력
-                for (int i = 0; i < rows.size(); i++) {
-                    Row row = sheet.createRow(i);
-                    List<String> cells = rows.get(i);
-                    
-                    for (int j = 0; j < cells.size(); j++) {
-                        Cell cell = row.createCell(j);
-                        cell.setCellValue(cells.get(j));
-                        
-                        // 첫 번째 행에는 헤더 스타일 적용
-                        if (i == 0) {
-                            cell.setCellStyle(headerStyle);
-                        } else {
-                            cell.setCellStyle(defaultStyle);
-                        }
-                    }
+                if (index >= 0) {
+                    workbook.setSheetOrder(sheetName, index);
                 }
-                
-                // 열 너비 자동 조정
-                for (int i = 0; i < rows.get(0).size(); i++) {
-                    sheet.autoSizeColumn(i);
-                    // 최소 너비 설정
-                    int currentWidth = sheet.getColumnWidth(i);
-                    if (currentWidth < 3000) {
-                        sheet.setColumnWidth(i, 3000);
-                    } else if (currentWidth > 15000) {
-                        sheet.setColumnWidth(i, 15000);
-                    }
+                writeSheet(sheet, entry.getValue(), headerStyle, cellWriter);
+            }
+
+            packageWriter.write(DocumentRequest.DocumentType.EXCEL, workbook, packageOut -> {
+                ByteArrayOutputStream patched = new ByteArrayOutputStream();
+                workbook.write(patched);
+                copyParts(source, patched.toByteArray(), unchangedParts, packageOut);
+            }, out, true);
+        }
+    }
+
+    /**
+     * 워크시트 파트를 빈 시트로 바꾼 패키지로 워크북을 엽니다.
+     * 시트 데이터를 파싱하지 않으므로 워크북 구조, 스타일, 공유 문자열만 메모리에 올라옵니다.
+     */
+    private static XSSFWorkbook openWithoutSheetData(ZipFile source) throws IOException {
+        ByteArrayOutputStream stubbed = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(stubbed)) {
+            for (ZipArchiveEntry entry : Collections.list(source.getEntriesInPhysicalOrder())) {
+                if (entry.getName().startsWith(WORKSHEET_PART_PREFIX) && entry.getName().endsWith(".xml")) {
+                    zipOut.putArchiveEntry(new ZipArchiveEntry(entry.getName()));
+                    zipOut.write(EMPTY_WORKSHEET);
+                    zipOut.closeArchiveEntry();
+                } else {
+                    zipOut.addRawArchiveEntry(entry, source.getRawInputStream(entry));
                 }
             }
-            
-            // 파일 저장
-            File outputFile = new File(tempDir, fileName);
-            try (FileOutputStream fileOut = new FileOutputStream(outputFile)) {
-                workbook.write(fileOut);
+        }
+        return new XSSFWorkbook(new ByteArrayInputStream(stubbed.toByteArray()));
+    }
+
+    /**
+     * 수정한 패키지의 파트를 순서대로 기록하되, 바뀌지 않은 시트 파트는 원본 파일의 압축된 바이트로 대신합니다.
+     */
+    private static void copyParts(ZipFile source, byte[] patched, Set<String> unchangedParts,
+                                  OutputStream out) throws IOException {
+        try (ZipFile patchedZip = new ZipFile(new SeekableInMemoryByteChannel(patched));
+             ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(CloseShieldOutputStream.wrap(out))) {
+            for (ZipArchiveEntry entry : Collections.list(patchedZip.getEntriesInPhysicalOrder())) {
+                ZipFile from = unchangedParts.contains(entry.getName()) ? source : patchedZip;
+                ZipArchiveEntry part = from.getEntry(entry.getName());
+                zipOut.addRawArchiveEntry(part, from.getRawInputStream(part));
             }
-            
-            return fileName;
-            
-        } catch (IOException e) {
-            throw new DocumentGenerationException("엑셀 파일 생성 실패: " + e.getMessage(), e);
         }
     }
-    
+
     /**
-     * 헤더 셀 스타일을 생성합니다.
+     * 헤더 셀 스타일을 찾거나 생성합니다.
      */
     private CellStyle createHeaderStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setAlignment(HorizontalAlignment.CENTER);
-        style.setVerticalAlignment(VerticalAlignment.CENTER);
-        style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        
-        XSSFFont font = ((XSSFWorkbook) workbook).createFont();
-        font.setFontName("맑은 고딕");
-        font.setFontHeightInPoints((short) 11);
-        font.setBold(true);
-        style.setFont(font);
-        
-        return style;
+        Font font = findOrCreateFont(workbook, (short) 11, true);
+        return TypedCellWriter.findOrCreateStyle(workbook,
+                style -> hasBorderedLayout(style, HorizontalAlignment.CENTER, font)
+                        && style.getFillPattern() == FillPatternType.SOLID_FOREGROUND
+                        && style.getFillForegroundColor() == IndexedColors.GREY_25_PERCENT.getIndex(),
+                style -> {
+                    style.setAlignment(HorizontalAlignment.CENTER);
+                    style.setVerticalAlignment(VerticalAlignment.CENTER);
+                    style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+                    style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+                    setThinBorders(style);
+                    style.setFont(font);
+                });
     }
     
     /**
-     * 기본 셀 스타일을 생성합니다.
+     * 기본 셀 스타일을 찾거나 생성합니다.
      */
     private CellStyle createDefaultStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setAlignment(HorizontalAlignment.LEFT);
-        style.setVerticalAlignment(VerticalAlignment.CENTER);
+        Font font = findOrCreateFont(workbook, (short) 10, false);
+        return TypedCellWriter.findOrCreateStyle(workbook,
+                style -> hasBorderedLayout(style, HorizontalAlignment.LEFT, font)
+                        && style.getFillPattern() == FillPatternType.NO_FILL,
+                style -> {
+                    style.setAlignment(HorizontalAlignment.LEFT);
+                    style.setVerticalAlignment(VerticalAlignment.CENTER);
+                    setThinBorders(style);
+                    style.setFont(font);
+                });
+    }
+
+    /**
+     * 기존 파일을 수정할 때 글꼴이 늘어나지 않도록 같은 글꼴이 있으면 재사용합니다.
+     */
+    private Font findOrCreateFont(Workbook workbook, short heightInPoints, boolean bold) {
+        for (int i = 0; i < workbook.getNumberOfFonts(); i++) {
+            Font font = workbook.getFontAt(i);
+            if (FONT_NAME.equals(font.getFontName()) && font.getFontHeightInPoints() == heightInPoints
+                    && font.getBold() == bold && !font.getItalic() && !font.getStrikeout()
+                    && font.getUnderline() == Font.U_NONE) {
+                return font;
+            }
+        }
+
+        XSSFFont font = ((XSSFWorkbook) workbook).createFont();
+        font.setFontName(FONT_NAME);
+        font.setFontHeightInPoints(heightInPoints);
+        font.setBold(bold);
+        return font;
+    }
+
+    private static boolean hasBorderedLayout(CellStyle style, HorizontalAlignment alignment, Font font) {
+        return style.getFontIndex() == font.getIndex()
+                && style.getDataFormat() == 0
+                && style.getAlignment() == alignment
+                && style.getVerticalAlignment() == VerticalAlignment.CENTER
+                && style.getBorderTop() == BorderStyle.THIN
+                && style.getBorderBottom() == BorderStyle.THIN
+                && style.getBorderLeft() == BorderStyle.THIN
+                && style.getBorderRight() == BorderStyle.THIN;
+    }
+
+    private static void setThinBorders(CellStyle style) {
         style.setBorderTop(BorderStyle.THIN);
         style.setBorderBottom(BorderStyle.THIN);
         style.setBorderLeft(BorderStyle.THIN);
         style.setBorderRight(BorderStyle.THIN);
-        
-        XSSFFont font = ((XSSFWorkbook) workbook).createFont();
-        font.setFontName("맑은 고딕");
-        font.setFontHeightInPoints((short) 10);
-        style.setFont(font);
-        
-        return style;
     }
 }
@@ -0,0 +1,370 @@
+package com.example.springaimcpserver.service.impl;
+
+import com.example.springaimcpserver.exception.DocumentGenerationException;
+import com.example.springaimcpserver.model.DocumentRequest;
+import com.example.springaimcpserver.model.DocumentResponse;
+import com.example.springaimcpserver.service.AiService;
+import com.example.springaimcpserver.service.ArtifactStore;
+import com.example.springaimcpserver.service.DocumentJobScheduler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 클라이언트가 보낸 CSV/TSV/NDJSON 행을 AI 를 거치지 않고 스트리밍 워크북에 직접 기록하는 서비스
+ * AI 는 선택적인 요약 시트에만 사용합니다.
+ * 적재도 {@link DocumentJobScheduler} 의 작업으로 실행하여 다른 문서 생성과 같은 레인/테넌트 공정성과 동시 실행 제한을 받습니다.
+ * 요청 본문은 작업 스레드에서 읽으므로, 대기열에서 기다리는 동안에는 업로드도 함께 대기합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExcelIngestService {
+
+    // 요약 프롬프트에 포함할 샘플 행 수
+    private static final int SUMMARY_SAMPLE_ROWS = 20;
+
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private final ExcelGeneratorService excelGeneratorService;
+    private final DocumentJobScheduler jobScheduler;
+    private final AiService aiService;
+    private final ObjectMapper objectMapper;
+    private final ArtifactStore artifactStore;
+
+    // 메모리에 유지할 행 수 (초과분은 임시 파일로 flush)
+    @Value("${app.document.ingest.row-access-window:1000}")
+    private int rowAccessWindow;
+
+    @Value("${app.document.ingest.column-width:4000}")
+    private int columnWidth;
+
+    public enum Format {
+        CSV,
+        TSV,
+        NDJSON;
+
+        /**
+         * 요청 본문의 Content-Type 으로 입력 형식을 정합니다.
+         *
+         * @param contentType 요청 본문 형식
+         * @return 입력 형식 (알 수 없으면 CSV)
+         */
+        public static Format from(MediaType contentType) {
+            if (contentType.isCompatibleWith(MediaType.parseMediaType("application/x-ndjson"))) {
+                return NDJSON;
+            }
+            if (contentType.isCompatibleWith(MediaType.parseMediaType("text/tab-separated-values"))) {
+                return TSV;
+            }
+            return CSV;
+        }
+    }
+
+    /**
+     * 적재 작업의 스케줄링과 Idempotency-Key 비교에 사용할 요청을 만듭니다.
+     * 본문 내용은 포함하지 않으므로, 같은 키의 재시도는 제목과 적재 옵션이 같으면 같은 작업으로 봅니다.
+     *
+     * @param title       문서 제목
+     * @param sheetName   데이터 시트 이름
+     * @param format      입력 형식
+     * @param withSummary AI 요약 시트 생성 여부
+     * @return 문서 생성 요청
+     */
+    public static DocumentRequest ingestRequest(String title, String sheetName, Format format, boolean withSummary) {
+        Map<String, Object> options = new HashMap<>();
+        options.put("ingestFormat", format.name());
+        options.put("sheetName", sheetName);
+        options.put("summary", withSummary);
+
+        return DocumentRequest.builder()
+                .title(title)
+                .content("")
+                .documentType(DocumentRequest.DocumentType.EXCEL)
+                .additionalOptions(options)
+                .build();
+    }
+
+    /**
+     * 입력 스트림의 행을 작업 스케줄러에서 엑셀 파일로 기록합니다.
+     * 입력이 비었거나 형식이 잘못된 경우 IllegalArgumentException, 그 밖의 실패는 DocumentGenerationException,
+     * 대기열이 가득 찬 경우 RejectedExecutionException 으로 완료되며, 어느 경우든 문서 상태는 FAILED 로 남습니다.
+     * 입력 스트림은 작업이 끝나면 닫습니다.
+     *
+     * @param request     스케줄링 정보(우선순위, 테넌트)가 반영된 요청 ({@link #ingestRequest})
+     * @param sheetName   데이터 시트 이름
+     * @param format      입력 형식
+     * @param body        입력 스트림 (첫 행 또는 첫 객체의 키가 헤더)
+     * @param withSummary AI 요약 시트 생성 여부
+     * @return 문서 생성 응답 (비동기)
+     */
+    public CompletableFuture<DocumentResponse> ingest(DocumentRequest request, String sheetName, Format format,
+                                                      InputStream body, boolean withSummary) {
+        String documentId = UUID.randomUUID().toString();
+        String title = request.getTitle();
+        excelGeneratorService.registerDocument(DocumentResponse.processing(documentId, title));
+
+        return jobScheduler.submit(request, () -> ingest(documentId, title, sheetName, format, body, withSummary))
+                .whenComplete((response, ex) -> {
+                    closeQuietly(body);
+                    if (ex instanceof RejectedExecutionException) {
+                        excelGeneratorService.registerDocument(DocumentResponse.failed(documentId, title, ex.getMessage()));
+                    }
+                });
+    }
+
+    private DocumentResponse ingest(String documentId, String title, String sheetName, Format format,
+                                    InputStream body, boolean withSummary) {
+        try {
+            ArtifactStore.Artifact artifact = writeWorkbook(title, sheetName, format, body, withSummary);
+
+            DocumentResponse completedResponse = DocumentResponse.completed(
+                    documentId, title, artifact.fileName(), artifact.contentHash());
+            excelGeneratorService.registerDocument(completedResponse);
+            return completedResponse;
+
+        } catch (IllegalArgumentException e) {
+            log.warn("데이터 적재 입력 오류: {}", e.getMessage());
+            excelGeneratorService.registerDocument(DocumentResponse.failed(documentId, title, e.getMessage()));
+            throw e;
+        } catch (Exception e) {
+            log.error("데이터 적재 중 오류 발생: {}", e.getMessage(), e);
+            excelGeneratorService.registerDocument(DocumentResponse.failed(documentId, title, e.getMessage()));
+            throw new DocumentGenerationException("데이터 적재 중 오류가 발생했습니다: " + e.getMessage(), e);
+        }
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            log.debug("Failed to close ingest body: {}", e.getMessage());
+        }
+    }
+
+    private ArtifactStore.Artifact writeWorkbook(String title, String sheetName, Format format, InputStream body,
+                                 boolean withSummary) throws IOException {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String safeName = title.replaceAll("[^a-zA-Z0-9가-힣]", "_");
+        String fileName = safeName + "_" + timestamp + ".xlsx";
+
+        long startTime = System.nanoTime();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(null, rowAccessWindow, true, false);
+
+        try {
+            CellStyle headerStyle = createHeaderStyle(workbook);
+            RowSink sink = new RowSink(workbook, sheetName, headerStyle, new TypedCellWriter(workbook, null));
+
+            switch (format) {
+                case CSV:
+                case TSV:
+                    readDelimited(body, format == Format.TSV ? '\t' : ',', sink);
+                    break;
+                case NDJSON:
+                    readNdjson(body, sink);
+                    break;
+                default:
+                    throw new DocumentGenerationException("지원하지 않는 입력 형식: " + format);
+            }
+
+            if (sink.header == null) {
+                throw new IllegalArgumentException("입력 데이터가 비어 있습니다.");
+            }
+
+            if (withSummary) {
+                writeSummarySheet(workbook, title, sink);
+            }
+
+            ArtifactStore.Artifact artifact = artifactStore.store(fileName, workbook::write);
+
+            log.info("Ingested {} rows into {} in {} ms", sink.dataRows, fileName,
+                    (System.nanoTime() - startTime) / 1_000_000);
+            return artifact;
+
+        } finally {
+            workbook.close();
+            workbook.dispose();
+        }
+    }
+
+    private void readDelimited(InputStream body, char delimiter, RowSink sink) throws IOException {
+        try (CsvRowReader reader = new CsvRowReader(new InputStreamReader(body, StandardCharsets.UTF_8), delimiter)) {
+            List<String> row;
+            while ((row = reader.readRow()) != null) {
+                if (row.size() == 1 && row.get(0).isEmpty()) {
+                    continue;
+                }
+                sink.accept(new ArrayList<>(row));
+            }
+        }
+    }
+
+    private void readNdjson(InputStream body, RowSink sink) throws IOException {
+        try (MappingIterator<LinkedHashMap<String, Object>> records = objectMapper
+                .readerFor(new TypeReference<LinkedHashMap<String, Object>>() {})
+                .readValues(body)) {
+
+            List<String> keys = null;
+            while (records.hasNextValue()) {
+                LinkedHashMap<String, Object> record = records.nextValue();
+
+                if (keys == null) {
+                    keys = new ArrayList<>(record.keySet());
+                    sink.accept(new ArrayList<>(keys));
+                }
+
+                List<Object> values = new ArrayList<>(keys.size());
+                for (String key : keys) {
+                    values.add(record.get(key));
+                }
+                sink.accept(values);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("NDJSON 형식이 올바르지 않습니다: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * 헤더와 샘플 행을 바탕으로 AI 요약 시트를 만들어 첫 번째 시트로 배치합니다.
+     */
+    private void writeSummarySheet(SXSSFWorkbook workbook, String title, RowSink sink) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("제목: ").append(title).append("\n\n");
+        prompt.append("다음은 총 ").append(sink.dataRows).append("행으로 구성된 표 데이터의 헤더와 앞부분 샘플입니다.\n");
+        prompt.append("헤더: ").append(sink.header).append("\n");
+        sink.samples.forEach(sample -> prompt.append(sample).append("\n"));
+        prompt.append("\n이 데이터의 개요와 주요 특징을 보고서 요약 형식으로 5줄 이내로 작성해주세요.");
+
+        String summary = aiService.generateContent(prompt.toString());
+
+        SXSSFSheet summarySheet = workbook.createSheet("요약");
+        int rowIndex = 0;
+        summarySheet.createRow(rowIndex++).createCell(0).setCellValue(title);
+        summarySheet.createRow(rowIndex++).createCell(0).setCellValue("총 행 수: " + sink.dataRows);
+        for (String line : summary.split("\n")) {
+            if (!line.isBlank()) {
+                summarySheet.createRow(rowIndex++).createCell(0).setCellValue(line.trim());
+            }
+        }
+        summarySheet.setColumnWidth(0, 20000);
+        workbook.setSheetOrder(summarySheet.getSheetName(), 0);
+        workbook.setActiveSheet(0);
+    }
+
+    /**
+     * 헤더 셀 스타일을 생성합니다.
+     */
+    private CellStyle createHeaderStyle(Workbook workbook) {
+        CellStyle style = workbook.createCellStyle();
+        style.setAlignment(HorizontalAlignment.CENTER);
+        style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+        Font font = workbook.createFont();
+        font.setFontName("맑은 고딕");
+        font.setBold(true);
+        style.setFont(font);
+
+        return style;
+    }
+
+    /**
+     * 행을 받아 시트에 기록합니다. 시트 최대 행 수를 넘으면 헤더를 반복한 새 시트로 이어서 기록합니다.
+     */
+    private class RowSink {
+
+        private final SXSSFWorkbook workbook;
+        private final String sheetName;
+        private final CellStyle headerStyle;
+        private final TypedCellWriter cellWriter;
+        private final List<List<?>> samples = new ArrayList<>();
+
+        private List<?> header;
+        private SXSSFSheet sheet;
+        private int sheetCount;
+        private int rowIndex;
+        private long dataRows;
+
+        private RowSink(SXSSFWorkbook workbook, String sheetName, CellStyle headerStyle, TypedCellWriter cellWriter) {
+            this.workbook = workbook;
+            this.sheetName = sheetName;
+            this.headerStyle = headerStyle;
+            this.cellWriter = cellWriter;
+        }
+
+        private void accept(List<?> values) {
+            if (header == null) {
+                header = values;
+                return;
+            }
+
+            if (sheet == null || rowIndex >= MAX_ROWS_PER_SHEET) {
+                startSheet();
+            }
+
+            Row row = sheet.createRow(rowIndex++);
+            for (int i = 0; i < values.size(); i++) {
+                setCellValue(row.createCell(i), values.get(i));
+            }
+
+            if (samples.size() < SUMMARY_SAMPLE_ROWS) {
+                samples.add(values);
+            }
+            dataRows++;
+        }
+
+        private void startSheet() {
+            sheetCount++;
+            sheet = workbook.createSheet(sheetCount == 1 ? sheetName : sheetName + " (" + sheetCount + ")");
+            rowIndex = 0;
+
+            Row headerRow = sheet.createRow(rowIndex++);
+            for (int i = 0; i < header.size(); i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(String.valueOf(header.get(i)));
+                cell.setCellStyle(headerStyle);
+                sheet.setColumnWidth(i, columnWidth);
+            }
+            sheet.createFreezePane(0, 1);
+        }
+
+        private void setCellValue(Cell cell, Object value) {
+            if (value == null) {
+                return;
+            }
+            if (value instanceof Number number) {
+                cell.setCellValue(number.doubleValue());
+            } else if (value instanceof Boolean bool) {
+                cell.setCellValue(bool);
+            } else {
+                // CSV 필드는 모두 문자열이므로 숫자/날짜 등의 형식을 판별하여 기록 (SXSSF 는 항상 인라인 문자열)
+                cellWriter.write(cell, value.toString(), false);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.springaimcpserver.service.impl;
+
+import com.example.springaimcpserver.model.DocumentRequest;
+import com.example.springaimcpserver.model.DocumentResponse;
+import com.example.springaimcpserver.service.DocumentStatusRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 단일 노드용 인메모리 문서 상태 저장소
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster.enabled", havingValue = "false", matchIfMissing = true)
+public class InMemoryDocumentStatusRegistry implements DocumentStatusRegistry {
+
+    private final Map<DocumentRequest.DocumentType, Map<String, DocumentResponse>> statuses =
+            new EnumMap<>(DocumentRequest.DocumentType.class);
+
+    public InMemoryDocumentStatusRegistry() {
+        for (DocumentRequest.DocumentType documentType : DocumentRequest.DocumentType.values()) {
+            statuses.put(documentType, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public void save(DocumentRequest.DocumentType documentType, DocumentResponse response) {
+        statuses.get(documentType).put(response.getId(), response);
+    }
+
+    @Override
+    public Optional<DocumentResponse> find(DocumentRequest.DocumentType documentType, String documentId) {
+        return Optional.ofNullable(statuses.get(documentType).get(documentId));
+    }
+
+    @Override
+    public boolean replaceIfStatus(DocumentRequest.DocumentType documentType, String documentId,
+                                   DocumentResponse.DocumentStatus expectedStatus, DocumentResponse updated) {
+        boolean[] replaced = {false};
+        statuses.get(documentType).computeIfPresent(documentId, (id, current) -> {
+            if (current.getStatus() != expectedStatus) {
+                return current;
+            }
+            replaced[0] = true;
+            return updated;
+        });
+        return replaced[0];
+    }
+}
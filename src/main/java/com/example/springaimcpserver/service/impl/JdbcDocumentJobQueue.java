@@ -0,0 +1,140 @@
+package com.example.springaimcpserver.service.impl;
+
+import com.example.springaimcpserver.exception.DocumentGenerationException;
+import com.example.springaimcpserver.model.DocumentRequest;
+import com.example.springaimcpserver.service.DocumentJobQueue;
+import com.example.springaimcpserver.service.DocumentJobScheduler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 클러스터 모드용 DB 작업 큐 (document_jobs 테이블)
+ * 후보 작업을 조회한 뒤 "아직 아무도 임대하지 않았거나 임대가 만료된 경우에만" 갱신하는 조건부 UPDATE 로 가져가므로,
+ * 여러 노드가 동시에 가져가도 한 작업은 한 노드에만 배정됩니다.
+ * JDBC 자동 설정은 cluster 프로파일에서만 켜지므로 이 빈도 클러스터 모드에서만 생성됩니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cluster.enabled", havingValue = "true")
+public class JdbcDocumentJobQueue implements DocumentJobQueue {
+
+    // document_jobs.tenant 열 크기
+    private static final int MAX_TENANT_LENGTH = 128;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void enqueue(String documentId, DocumentRequest request) {
+        Map<String, Object> options = request.getAdditionalOptions();
+        DocumentJobScheduler.Lane lane = DocumentJobScheduler.Lane.from(
+                options != null ? options.get(DocumentJobScheduler.OPTION_PRIORITY) : null);
+        Object tenant = options != null ? options.get(DocumentJobScheduler.OPTION_TENANT) : null;
+        String tenantKey = tenant != null ? tenant.toString() : DocumentJobScheduler.DEFAULT_TENANT;
+
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO document_jobs (id, lane, tenant, request, attempts, enqueued_at) VALUES (?, ?, ?, ?, 0, ?)",
+                    documentId, lane.ordinal(), tenantKey.substring(0, Math.min(tenantKey.length(), MAX_TENANT_LENGTH)),
+                    objectMapper.writeValueAsString(request), Timestamp.from(Instant.now()));
+        } catch (JsonProcessingException e) {
+            throw new DocumentGenerationException("작업을 큐에 등록하는데 실패했습니다.", e);
+        }
+    }
+
+    /**
+     * 우선순위 레인 순으로 가져가되, 같은 레인 안에서는 테넌트별 순번(ROW_NUMBER)으로 정렬하여
+     * 각 테넌트의 가장 오래된 작업을 번갈아 가져갑니다. 한 테넌트가 대량으로 넣은 작업이 다른 테넌트를 막지 않습니다.
+     */
+    @Override
+    public List<ClaimedJob> claim(String owner, int maxJobs, Duration leaseTime) {
+        Timestamp now = Timestamp.from(Instant.now());
+        Timestamp leaseUntil = Timestamp.from(Instant.now().plus(leaseTime));
+
+        // 다른 노드와 경합하여 일부를 놓칠 수 있으므로 여유 있게 후보를 조회
+        List<String> candidates = jdbcTemplate.queryForList(
+                "SELECT id FROM (" +
+                        "SELECT id, lane, enqueued_at, " +
+                        "ROW_NUMBER() OVER (PARTITION BY lane, tenant ORDER BY enqueued_at) AS tenant_rank " +
+                        "FROM document_jobs WHERE owner IS NULL OR lease_until < ?" +
+                        ") AS candidates ORDER BY lane, tenant_rank, enqueued_at LIMIT ?",
+                String.class, now, maxJobs * 2);
+
+        List<ClaimedJob> claimed = new ArrayList<>();
+        try {
+            for (String documentId : candidates) {
+                if (claimed.size() >= maxJobs) {
+                    break;
+                }
+
+                int updated = jdbcTemplate.update(
+                        "UPDATE document_jobs SET owner = ?, lease_until = ?, attempts = attempts + 1 " +
+                                "WHERE id = ? AND (owner IS NULL OR lease_until < ?)",
+                        owner, leaseUntil, documentId, now);
+                if (updated == 0) {
+                    continue;
+                }
+
+                claimed.addAll(jdbcTemplate.query("SELECT request, attempts FROM document_jobs WHERE id = ?",
+                        (rs, rowNum) -> new ClaimedJob(documentId, readRequest(documentId, rs.getString("request")),
+                                rs.getInt("attempts")),
+                        documentId));
+            }
+        } catch (RuntimeException e) {
+            // 이미 가져간 작업이 임대 만료까지 묶이지 않도록 반납한 뒤 실패를 전달
+            for (ClaimedJob job : claimed) {
+                release(job.documentId(), owner);
+            }
+            throw e;
+        }
+
+        if (!claimed.isEmpty()) {
+            log.debug("Node {} claimed {} job(s)", owner, claimed.size());
+        }
+        return claimed;
+    }
+
+    @Override
+    public void renew(String documentId, String owner, Duration leaseTime) {
+        jdbcTemplate.update("UPDATE document_jobs SET lease_until = ? WHERE id = ? AND owner = ?",
+                Timestamp.from(Instant.now().plus(leaseTime)), documentId, owner);
+    }
+
+    @Override
+    public void complete(String documentId, String owner) {
+        jdbcTemplate.update("DELETE FROM document_jobs WHERE id = ? AND owner = ?", documentId, owner);
+    }
+
+    @Override
+    public void release(String documentId, String owner) {
+        jdbcTemplate.update(
+                "UPDATE document_jobs SET owner = NULL, lease_until = NULL, attempts = attempts - 1 " +
+                        "WHERE id = ? AND owner = ?",
+                documentId, owner);
+    }
+
+    /**
+     * 작업 요청을 읽습니다. 읽을 수 없는 요청은 다시 시도해도 실패하므로 null 을 반환하여 워커가 실패로 처리하도록 합니다.
+     */
+    private DocumentRequest readRequest(String documentId, String payload) {
+        try {
+            return objectMapper.readValue(payload, DocumentRequest.class);
+        } catch (JsonProcessingException e) {
+            log.error("Unreadable request for queued job {}: {}", documentId, e.getMessage());
+            return null;
+        }
+    }
+}
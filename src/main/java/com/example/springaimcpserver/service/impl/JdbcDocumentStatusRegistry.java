@@ -0,0 +1,92 @@
+package com.example.springaimcpserver.service.impl;
+
+import com.example.springaimcpserver.exception.DocumentGenerationException;
+import com.example.springaimcpserver.model.DocumentRequest;
+import com.example.springaimcpserver.model.DocumentResponse;
+import com.example.springaimcpserver.service.DocumentStatusRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 클러스터 모드용 DB 문서 상태 저장소
+ * 모든 노드가 같은 테이블(document_status)을 사용하므로 어느 노드로 상태 조회가 가도 같은 결과를 반환합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cluster.enabled", havingValue = "true")
+public class JdbcDocumentStatusRegistry implements DocumentStatusRegistry {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void save(DocumentRequest.DocumentType documentType, DocumentResponse response) {
+        String payload = toJson(response);
+        Timestamp now = Timestamp.from(Instant.now());
+
+        int updated = jdbcTemplate.update(
+                "UPDATE document_status SET status = ?, payload = ?, updated_at = ? WHERE id = ? AND document_type = ?",
+                response.getStatus().name(), payload, now, response.getId(), documentType.name());
+        if (updated > 0) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO document_status (id, document_type, status, payload, updated_at) VALUES (?, ?, ?, ?, ?)",
+                    response.getId(), documentType.name(), response.getStatus().name(), payload, now);
+        } catch (DuplicateKeyException e) {
+            // 다른 노드가 먼저 등록한 경우 덮어씀
+            jdbcTemplate.update(
+                    "UPDATE document_status SET status = ?, payload = ?, updated_at = ? WHERE id = ? AND document_type = ?",
+                    response.getStatus().name(), payload, now, response.getId(), documentType.name());
+        }
+    }
+
+    @Override
+    public Optional<DocumentResponse> find(DocumentRequest.DocumentType documentType, String documentId) {
+        List<String> payloads = jdbcTemplate.queryForList(
+                "SELECT payload FROM document_status WHERE id = ? AND document_type = ?",
+                String.class, documentId, documentType.name());
+
+        return payloads.stream().findFirst().map(this::fromJson);
+    }
+
+    @Override
+    public boolean replaceIfStatus(DocumentRequest.DocumentType documentType, String documentId,
+                                   DocumentResponse.DocumentStatus expectedStatus, DocumentResponse updated) {
+        return jdbcTemplate.update(
+                "UPDATE document_status SET status = ?, payload = ?, updated_at = ? " +
+                        "WHERE id = ? AND document_type = ? AND status = ?",
+                updated.getStatus().name(), toJson(updated), Timestamp.from(Instant.now()),
+                documentId, documentType.name(), expectedStatus.name()) > 0;
+    }
+
+    private String toJson(DocumentResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new DocumentGenerationException("문서 상태를 저장하는데 실패했습니다.", e);
+        }
+    }
+
+    private DocumentResponse fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, DocumentResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new DocumentGenerationException("저장된 문서 상태를 읽는데 실패했습니다.", e);
+        }
+    }
+}
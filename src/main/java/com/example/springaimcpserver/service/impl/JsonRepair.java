@@ -0,0 +1,187 @@
+package com.example.springaimcpserver.service.impl;
+
+/**
+ * 모델이 반환한 JSON 텍스트의 흔한 결함을 고치는 관대한 전처리기
+ * 코드 펜스와 앞뒤 설명 문장을 제거하고, 닫는 괄호 앞의 불필요한 쉼표와 짝이 없는 닫는 괄호를 지웁니다.
+ * "[결과] {...}" 처럼 설명 문장에 괄호가 있으면 JSON 값으로 시작하지 않는 괄호는 건너뛰고 다음 괄호부터 찾습니다.
+ * 중간에 끊긴 응답은 마지막으로 완성된 객체/배열까지만 남기고 열린 괄호를 닫아, 완성된 행과 슬라이드를 살립니다.
+ */
+final class JsonRepair {
+
+    enum Outcome {
+        CLEAN,      // 수정 없이 파싱 가능
+        REPAIRED,   // 쉼표/괄호 결함을 고침
+        SALVAGED,   // 끊긴 응답에서 완성된 부분만 살림
+        FAILED      // 살릴 수 있는 부분이 없음
+    }
+
+    record Result(Outcome outcome, String json) {
+    }
+
+    // 설명 문장의 괄호를 건너뛰며 시도할 시작 위치 수 (긴 응답을 여러 번 훑지 않도록 제한)
+    private static final int MAX_CANDIDATES = 8;
+
+    private JsonRepair() {
+    }
+
+    /**
+     * 응답 텍스트에서 첫 번째 JSON 객체 또는 배열을 찾아 결함을 고칩니다.
+     * 설명 문장의 괄호처럼 JSON 값으로 시작하지 않거나 살릴 부분이 없는 후보는 건너뛰고 다음 괄호를 시도합니다.
+     *
+     * @param text 모델 응답 텍스트
+     * @return 고친 JSON 과 수정 결과 (FAILED 이면 json 은 null)
+     */
+    static Result repair(String text) {
+        if (text == null) {
+            return new Result(Outcome.FAILED, null);
+        }
+
+        String body = stripCodeFence(text);
+        int start = nextContainerStart(body, 0);
+        for (int attempt = 0; start >= 0 && attempt < MAX_CANDIDATES; attempt++) {
+            if (startsJsonValue(body, start)) {
+                Result result = repairFrom(body, start);
+                if (result.outcome() != Outcome.FAILED) {
+                    return result;
+                }
+            }
+            start = nextContainerStart(body, start + 1);
+        }
+        return new Result(Outcome.FAILED, null);
+    }
+
+    private static Result repairFrom(String body, int start) {
+        StringBuilder out = new StringBuilder(body.length() - start + 8);
+        // 열린 괄호에 대응하는 닫는 괄호를 쌓아 둠
+        StringBuilder closers = new StringBuilder();
+        boolean inString = false;
+        boolean escaped = false;
+        boolean modified = false;
+
+        // 마지막으로 객체/배열이 닫힌 위치와 그 시점에 열려 있던 괄호
+        int cutLength = -1;
+        String cutClosers = null;
+
+        for (int i = start; i < body.length(); i++) {
+            char c = body.charAt(i);
+
+            if (inString) {
+                out.append(c);
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    out.append(c);
+                }
+                case '{' -> {
+                    closers.append('}');
+                    out.append(c);
+                }
+                case '[' -> {
+                    closers.append(']');
+                    out.append(c);
+                }
+                case '}', ']' -> {
+                    if (closers.isEmpty() || closers.charAt(closers.length() - 1) != c) {
+                        modified = true;
+                        continue;
+                    }
+                    modified |= stripTrailingComma(out);
+                    out.append(c);
+                    closers.setLength(closers.length() - 1);
+
+                    if (closers.isEmpty()) {
+                        // 최상위 값이 끝나면 뒤따르는 설명 문장은 버림
+                        return new Result(modified ? Outcome.REPAIRED : Outcome.CLEAN, out.toString());
+                    }
+                    cutLength = out.length();
+                    cutClosers = closers.toString();
+                }
+                default -> out.append(c);
+            }
+        }
+
+        if (cutLength < 0) {
+            return new Result(Outcome.FAILED, null);
+        }
+
+        out.setLength(cutLength);
+        for (int i = cutClosers.length() - 1; i >= 0; i--) {
+            out.append(cutClosers.charAt(i));
+        }
+        return new Result(Outcome.SALVAGED, out.toString());
+    }
+
+    /**
+     * ```json ... ``` 코드 펜스가 있으면 안쪽 내용만 남깁니다. 닫는 펜스가 없으면 끝까지 사용합니다.
+     */
+    private static String stripCodeFence(String text) {
+        int fence = text.indexOf("```");
+        if (fence < 0) {
+            return text;
+        }
+        int contentStart = text.indexOf('\n', fence);
+        if (contentStart < 0) {
+            return text;
+        }
+        int end = text.indexOf("```", contentStart);
+        return end < 0 ? text.substring(contentStart + 1) : text.substring(contentStart + 1, end);
+    }
+
+    private static int nextContainerStart(String text, int from) {
+        int object = text.indexOf('{', from);
+        int array = text.indexOf('[', from);
+        if (object < 0 || array < 0) {
+            return Math.max(object, array);
+        }
+        return Math.min(object, array);
+    }
+
+    /**
+     * 괄호 다음의 첫 문자가 JSON 으로 올 수 있는 값인지 확인합니다.
+     * 객체는 키(") 또는 닫는 괄호, 배열은 JSON 값의 시작 문자 또는 닫는 괄호여야 합니다.
+     */
+    private static boolean startsJsonValue(String text, int start) {
+        int i = start + 1;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        if (i == text.length()) {
+            // 여는 괄호 직후에 끊긴 응답
+            return true;
+        }
+
+        char c = text.charAt(i);
+        if (text.charAt(start) == '{') {
+            return c == '"' || c == '}';
+        }
+        return c == '"' || c == '{' || c == '[' || c == ']' || c == '-' || (c >= '0' && c <= '9')
+                || text.startsWith("true", i) || text.startsWith("false", i) || text.startsWith("null", i);
+    }
+
+    /**
+     * 버퍼 끝의 공백을 건너뛰어 쉼표가 있으면 제거합니다.
+     *
+     * @return 쉼표를 제거했으면 true
+     */
+    private static boolean stripTrailingComma(StringBuilder out) {
+        int i = out.length() - 1;
+        while (i >= 0 && Character.isWhitespace(out.charAt(i))) {
+            i--;
+        }
+        if (i >= 0 && out.charAt(i) == ',') {
+            out.setLength(i);
+            return true;
+        }
+        return false;
+    }
+}
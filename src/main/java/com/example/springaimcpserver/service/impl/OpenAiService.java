@@ -1,24 +1,43 @@
 package com.example.springaimcpserver.service.impl;
 
 import com.example.springaimcpserver.exception.DocumentGenerationException;
+import com.example.springaimcpserver.logging.LogPayloads;
+import com.example.springaimcpserver.model.DocumentRequest;
 import com.example.springaimcpserver.service.AiService;
+import com.example.springaimcpserver.service.ContentChunker;
+import com.example.springaimcpserver.service.ModelRouter;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.ChatClient;
 import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.StreamingChatClient;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -26,40 +45,262 @@ import java.util.Map;
 public class OpenAiService implements AiService {
 
     private final ChatClient chatClient;
+    private final StreamingChatClient streamingChatClient;
     private final ObjectMapper objectMapper;
+    private final ContentChunker contentChunker;
+    private final ModelRouter modelRouter;
+    private final MeterRegistry meterRegistry;
+
+    @Qualifier("aiChunkExecutor")
+    private final Executor aiChunkExecutor;
+
+    // 이 값을 넘는 입력은 모델 호출 전에 거부
+    @Value("${app.ai.prompt.max-input-tokens:60000}")
+    private int maxInputTokens;
+
+    // 이 값을 넘는 입력은 청크로 나누어 요약한 뒤 최종 구조 요청에 사용
+    @Value("${app.ai.prompt.chunk-tokens:3000}")
+    private int chunkTokens;
+
+    // true 이면 스트리밍 API 로 모델을 논블로킹 호출하고 응답 조각을 Mono 로 모음
+    // 청크 요약은 조각을 스레드 없이 병렬로 받고, 작업 스레드는 최종 결과에서 한 번만 대기
+    @Value("${app.ai.streaming:false}")
+    private boolean streaming;
+
+    // true 이면 엑셀 생성 프롬프트에서 '=' 로 시작하는 수식을 요청 (ExcelGeneratorService 와 같은 설정)
+    @Value("${app.document.excel.allow-formulas:false}")
+    private boolean allowFormulas;
+
+    // true 이면 끊긴 JSON 응답에서 살린 부분 뒤의 나머지만 한 번 더 요청
+    @Value("${app.ai.json.continuation:true}")
+    private boolean continuation;
+
+    // 스트리밍 모드에서 동시에 진행할 청크 요약 호출 수 (aiChunkExecutor 최대 스레드 수와 같음)
+    private static final int STREAM_CHUNK_CONCURRENCY = 8;
+
+    // 요약 결과가 여전히 클 때 반복할 최대 축약 단계
+    private static final int MAX_REDUCE_DEPTH = 3;
+
+    // 최상위가 배열인 응답을 맵으로 감쌀 때 사용하는 키
+    private static final String TOP_LEVEL_ARRAY_KEY = "items";
+
+    // 이어서 생성 요청에 함께 보낼 끊긴 응답의 끝부분 길이
+    private static final int CONTINUATION_TAIL_CHARS = 2000;
+
+    // 제목이 길어 청크 예산이 거의 남지 않아도 요약 청크는 이 크기 이상으로 나눔
+    private static final int MIN_CHUNK_TOKENS = 200;
+
+    // 구조화된 응답 요청 시 프롬프트 뒤에 붙이는 반환 형식 안내
+    private static final String STRUCTURED_SUFFIX = "\n\n" +
+            "반환 형식은 다음과 같아야 합니다: %s\n" +
+            "유효한 JSON 형식으로 반환해 주세요.";
+
+    private static final String EXCEL_TEMPLATE =
+            "제목: %s\n\n" +
+            "내용: %s\n\n" +
+            "위 정보를 기반으로 엑셀 파일의 구조를 생성해주세요.\n" +
+            "여러 시트로 구성될 수 있으며, 각 시트에는 행과 열로 구성된 데이터가 포함됩니다.\n" +
+            "첫 번째 행은 열 제목이어야 합니다.\n" +
+            "JSON 형식으로 반환해주세요. 각 시트는 키가 되며, 값은 2차원 배열로 각 행의 데이터입니다.\n";
+
+    // 엑셀 셀 값 작성 규칙 (수식 허용 여부에 따라 선택)
+    private static final String EXCEL_VALUES =
+            "숫자는 따옴표 없는 JSON 숫자로, 날짜는 yyyy-MM-dd 형식으로 작성하고, 계산이 필요한 값은 수식 대신 계산한 결과 값으로 작성해주세요.";
+
+    private static final String EXCEL_VALUES_WITH_FORMULAS =
+            "숫자는 따옴표 없는 JSON 숫자로, 날짜는 yyyy-MM-dd 형식으로, 계산이 필요한 값은 '=' 로 시작하는 수식으로 작성해주세요.";
+
+    private static final String TABLE_TEMPLATE =
+            "제목: %s\n\n" +
+            "내용: %s\n\n" +
+            "위 정보를 기반으로 CSV 로 내보낼 하나의 표 데이터를 생성해주세요.\n" +
+            "첫 번째 행은 열 제목이어야 하며, 모든 행의 열 수는 같아야 합니다.\n" +
+            "숫자는 따옴표 없는 JSON 숫자로, 날짜는 yyyy-MM-dd 형식으로 작성하고 수식은 사용하지 마세요.";
+
+    private static final String PPT_TEMPLATE =
+            "제목: %s\n\n" +
+            "내용: %s\n\n" +
+            "위 정보를 기반으로 PPT 프레젠테이션의 슬라이드 구조를 생성해주세요.\n" +
+            "각 슬라이드에는 제목, 내용, 그리고 선택적으로 메모가 포함될 수 있습니다.\n" +
+            "슬라이드 목록을 JSON 형식으로 반환해주세요. 각 슬라이드는 객체여야 하며, 슬라이드 제목, 내용, 메모를 포함합니다.";
+
+    private static final String SUMMARY_TEMPLATE =
+            "문서 제목: %s\n\n" +
+            "다음은 긴 입력 자료의 %d/%d 부분입니다.\n" +
+            "문서 생성에 필요한 수치, 표 데이터, 고유 명사, 핵심 사실을 보존하여 약 %d 토큰 이내로 요약해주세요.\n\n" +
+            "%s";
+
+    private static final String EXCEL_FORMAT =
+            "{ \"Sheet1\": [[\"Column1\", \"Column2\"], [\"Data1\", \"Data2\"]], \"Sheet2\": [[...], [...]] }";
+
+    private static final String ROWS_FORMAT = "{ \"rows\": [[\"Column1\", \"Column2\"], [\"Data1\", \"Data2\"]] }";
+
+    private static final String PPT_FORMAT =
+            "[{\"title\": \"슬라이드1 제목\", \"content\": \"슬라이드1 내용\", \"notes\": \"슬라이드1 메모\"}, ...]";
 
     @Override
     public String generateContent(String prompt) {
-        log.debug("Generating content with prompt: {}", prompt);
-        Message userMessage = new UserMessage(prompt);
-        Prompt aiPrompt = new Prompt(userMessage);
-        ChatResponse response = chatClient.call(aiPrompt);
+        return generateContent(prompt, null);
+    }
+
+    /**
+     * 지정한 모델로 AI 응답을 가져옵니다.
+     *
+     * @param prompt AI에게 전달할 프롬프트
+     * @param model  사용할 모델 (null 이면 기본 설정 사용)
+     * @return AI의 응답 텍스트
+     */
+    private String generateContent(String prompt, String model) {
+        if (streaming) {
+            // 작업 스케줄러 스레드에서만 호출되며, 이벤트 루프 스레드에서는 block() 이 IllegalStateException 을 던짐
+            return streamContent(prompt, model).block();
+        }
+
+        log.debug("Generating content with model {} and prompt: {}", model, LogPayloads.describe(prompt));
+        ChatResponse response = chatClient.call(toPrompt(prompt, model));
         return response.getResult().getOutput().getContent();
     }
 
+    /**
+     * 스트리밍 API 로 모델을 호출하고 응답 조각을 하나로 합치는 Mono 를 반환합니다.
+     * 구독하기 전에는 호출하지 않으며, 조각을 기다리는 동안 스레드를 점유하지 않습니다.
+     *
+     * @param prompt AI에게 전달할 프롬프트
+     * @param model  사용할 모델 (null 이면 기본 설정 사용)
+     * @return AI의 응답 텍스트
+     */
+    private Mono<String> streamContent(String prompt, String model) {
+        return Mono.defer(() -> {
+            log.debug("Streaming content with model {} and prompt: {}", model, LogPayloads.describe(prompt));
+            return streamingChatClient.stream(toPrompt(prompt, model))
+                    .mapNotNull(response -> response.getResult() != null
+                            ? response.getResult().getOutput().getContent()
+                            : null)
+                    .collect(Collectors.joining());
+        });
+    }
+
+    private static Prompt toPrompt(String prompt, String model) {
+        Message userMessage = new UserMessage(prompt);
+        return model != null
+                ? new Prompt(userMessage, OpenAiChatOptions.builder().withModel(model).build())
+                : new Prompt(userMessage);
+    }
+
     @Override
     public Map<String, Object> generateStructuredContent(String prompt, String outputFormat) {
-        String structuredPrompt = prompt + "\n\n" +
-                "반환 형식은 다음과 같아야 합니다: " + outputFormat + "\n" +
-                "유효한 JSON 형식으로 반환해 주세요.";
+        return generateStructuredContent(prompt, outputFormat, null);
+    }
 
-        log.debug("Generating structured content with prompt: {}", structuredPrompt);
-        
-        String jsonResponse = generateContent(structuredPrompt);
-        
-        try {
-            // JSON 문자열 식별 및 추출
-            if (jsonResponse.contains("{") && jsonResponse.contains("}")) {
-                int start = jsonResponse.indexOf("{");
-                int end = jsonResponse.lastIndexOf("}") + 1;
-                jsonResponse = jsonResponse.substring(start, end);
+    /**
+     * 라우팅된 모델로 구조화된 응답을 가져오고, 파싱에 실패하면 상위 모델로 재시도합니다.
+     */
+    private Map<String, Object> generateRoutedStructuredContent(DocumentRequest.DocumentType documentType,
+                                                                String prompt, String outputFormat,
+                                                                Map<String, Object> options) {
+        String model = modelRouter.selectModel(documentType, contentChunker.estimateTokens(prompt), options);
+
+        while (true) {
+            try {
+                return generateStructuredContent(prompt, outputFormat, model);
+            } catch (DocumentGenerationException e) {
+                String failedModel = model;
+                model = modelRouter.fallbackModel(failedModel).orElseThrow(() -> e);
+                log.warn("Structured output from {} could not be parsed, retrying with {}", failedModel, model);
+            }
+        }
+    }
+
+    private Map<String, Object> generateStructuredContent(String prompt, String outputFormat, String model) {
+        String structuredPrompt = prompt + String.format(STRUCTURED_SUFFIX, outputFormat);
+
+        String jsonResponse = generateContent(structuredPrompt, model);
+
+        // 코드 펜스, 불필요한 쉼표, 끊긴 꼬리 등을 고쳐서 파싱하고 완성된 항목은 살림
+        JsonRepair.Result repaired = JsonRepair.repair(jsonResponse);
+        Map<String, Object> result = readStructured(repaired, "response");
+        if (result == null) {
+            log.error("Failed to parse JSON response: {}", LogPayloads.describe(jsonResponse));
+            throw new DocumentGenerationException("AI 응답을 구조화된 형식으로 변환하는데 실패했습니다.");
+        }
+
+        if (repaired.outcome() == JsonRepair.Outcome.SALVAGED && continuation) {
+            continueTruncated(structuredPrompt, jsonResponse, model, result);
+        }
+        return result;
+    }
+
+    /**
+     * 끊긴 응답의 나머지 항목만 다시 요청하여, 이미 살린 결과에 이어 붙입니다.
+     * 전체를 다시 생성하지 않으므로 출력 토큰은 빠진 부분만큼만 사용합니다.
+     */
+    private void continueTruncated(String structuredPrompt, String truncatedResponse, String model,
+                                   Map<String, Object> salvaged) {
+        log.info("Structured output was truncated, requesting the remaining items");
+        String tail = truncatedResponse.substring(Math.max(0, truncatedResponse.length() - CONTINUATION_TAIL_CHARS));
+        String continuationPrompt = structuredPrompt + "\n\n" +
+                "이전 응답이 중간에 끊겼습니다. 다음은 받은 응답의 마지막 부분입니다:\n" + tail + "\n\n" +
+                "끝까지 완성되지 않은 마지막 항목부터 나머지 항목만 같은 JSON 형식으로 반환해 주세요. " +
+                "이미 완성된 항목(열 제목 행 포함)은 반복하지 마세요.";
+
+        Map<String, Object> remainder = readStructured(
+                JsonRepair.repair(generateContent(continuationPrompt, model)), "continuation");
+        if (remainder == null) {
+            log.warn("Continuation of truncated output could not be parsed, using salvaged items only");
+            return;
+        }
+        mergeStructured(salvaged, remainder);
+    }
+
+    /**
+     * 고친 JSON 을 맵으로 읽고 결과를 ai.json.parse 메트릭에 기록합니다. 최상위 배열은 items 키로 감쌉니다.
+     *
+     * @return 파싱한 맵 (실패하면 null)
+     */
+    private Map<String, Object> readStructured(JsonRepair.Result repaired, String phase) {
+        JsonRepair.Outcome outcome = repaired.outcome();
+        Map<String, Object> parsed = null;
+
+        if (outcome != JsonRepair.Outcome.FAILED) {
+            try {
+                JsonNode node = objectMapper.readTree(repaired.json());
+                if (node.isArray()) {
+                    node = objectMapper.createObjectNode().set(TOP_LEVEL_ARRAY_KEY, node);
+                }
+                if (node.isObject()) {
+                    parsed = objectMapper.convertValue(node, new TypeReference<Map<String, Object>>() {});
+                } else {
+                    outcome = JsonRepair.Outcome.FAILED;
+                }
+            } catch (JsonProcessingException e) {
+                log.debug("Repaired JSON is still invalid: {}", e.getMessage());
+                outcome = JsonRepair.Outcome.FAILED;
             }
-            
-            return objectMapper.readValue(jsonResponse, new TypeReference<Map<String, Object>>() {});
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse JSON response: {}", jsonResponse, e);
-            throw new DocumentGenerationException("AI 응답을 구조화된 형식으로 변환하는데 실패했습니다.", e);
         }
+
+        Counter.builder("ai.json.parse")
+                .tag("phase", phase)
+                .tag("result", outcome.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .increment();
+        return parsed;
+    }
+
+    /**
+     * 이어서 생성한 결과를 합칩니다. 같은 키의 배열은 뒤에 붙이고, 맵은 재귀적으로 합치며, 새 키는 추가합니다.
+     */
+    @SuppressWarnings("unchecked")
+    private static void mergeStructured(Map<String, Object> target, Map<String, Object> addition) {
+        addition.forEach((key, value) -> {
+            Object existing = target.get(key);
+            if (existing == null) {
+                target.put(key, value);
+            } else if (existing instanceof List<?> list && value instanceof List<?> more) {
+                ((List<Object>) list).addAll(more);
+            } else if (existing instanceof Map<?, ?> map && value instanceof Map<?, ?> more) {
+                mergeStructured((Map<String, Object>) map, (Map<String, Object>) more);
+            }
+        });
     }
 
     @Override
@@ -80,38 +321,17 @@ public class OpenAiService implements AiService {
     }
 
     @Override
-    public Map<String, List<List<String>>> generateExcelStructure(String title, String content) {
-        String prompt = String.format(
-                "제목: %s\n\n" +
-                "내용: %s\n\n" +
-                "위 정보를 기반으로 엑셀 파일의 구조를 생성해주세요.\n" +
-                "여러 시트로 구성될 수 있으며, 각 시트에는 행과 열로 구성된 데이터가 포함됩니다.\n" +
-                "첫 번째 행은 열 제목이어야 합니다.\n" +
-                "JSON 형식으로 반환해주세요. 각 시트는 키가 되며, 값은 2차원 배열로 각 행의 데이터입니다.",
-                title, content);
-
-        Map<String, Object> response = generateStructuredContent(prompt, 
-                "{ \"Sheet1\": [[\"Column1\", \"Column2\"], [\"Data1\", \"Data2\"]], \"Sheet2\": [[...], [...]] }");
+    public Map<String, List<List<String>>> generateExcelStructure(String title, String content, Map<String, Object> options) {
+        String prompt = buildContentPrompt(EXCEL_TEMPLATE + excelValues(), title, content, EXCEL_FORMAT);
+
+        Map<String, Object> response = generateRoutedStructuredContent(DocumentRequest.DocumentType.EXCEL, prompt,
+                EXCEL_FORMAT, options);
         
         Map<String, List<List<String>>> result = new HashMap<>();
         
         response.forEach((sheetName, sheetData) -> {
             if (sheetData instanceof List) {
-                List<List<String>> convertedRows = new ArrayList<>();
-                
-                for (Object row : (List<?>) sheetData) {
-                    if (row instanceof List) {
-                        List<String> convertedCells = new ArrayList<>();
-                        
-                        for (Object cell : (List<?>) row) {
-                            convertedCells.add(cell.toString());
-                        }
-                        
-                        convertedRows.add(convertedCells);
-                    }
-                }
-                
-                result.put(sheetName, convertedRows);
+                result.put(sheetName, toRows((List<?>) sheetData));
             }
         });
         
@@ -119,49 +339,277 @@ public class OpenAiService implements AiService {
     }
 
     @Override
-    public List<Map<String, String>> generatePptStructure(String title, String content) {
+    public List<List<String>> regenerateExcelSheet(String title, String sheetName, List<List<String>> currentRows,
+                                                   String instruction, Map<String, Object> options) {
+        String prompt = String.format(
+                "제목: %s\n\n" +
+                "다음은 엑셀 문서의 '%s' 시트 데이터입니다. (JSON 2차원 배열, 첫 번째 행은 열 제목)\n%s\n\n" +
+                "수정 지시: %s\n\n" +
+                "수정 지시에 따라 이 시트 전체를 다시 작성해주세요. 지시와 관계없는 행과 열은 그대로 유지합니다.\n" +
+                "%s",
+                title, sheetName, toJson(currentRows), instruction, excelValues());
+
+        Map<String, Object> response = generateRoutedStructuredContent(DocumentRequest.DocumentType.EXCEL, prompt,
+                ROWS_FORMAT, options);
+
+        if (!(response.get("rows") instanceof List<?> rows)) {
+            throw new DocumentGenerationException("AI 응답에 시트 데이터가 없습니다.");
+        }
+        return toRows(rows);
+    }
+
+    @Override
+    public List<List<String>> generateTable(String title, String content, Map<String, Object> options) {
+        String prompt = buildContentPrompt(TABLE_TEMPLATE, title, content, ROWS_FORMAT);
+
+        Map<String, Object> response = generateRoutedStructuredContent(DocumentRequest.DocumentType.CSV, prompt,
+                ROWS_FORMAT, options);
+
+        Object rows = response.containsKey("rows") ? response.get("rows") : response.get(TOP_LEVEL_ARRAY_KEY);
+        if (!(rows instanceof List<?> rowList)) {
+            throw new DocumentGenerationException("AI 응답에 표 데이터가 없습니다.");
+        }
+        return toRows(rowList);
+    }
+
+    @Override
+    public List<List<String>> regenerateTable(String title, List<List<String>> currentRows,
+                                              String instruction, Map<String, Object> options) {
         String prompt = String.format(
                 "제목: %s\n\n" +
-                "내용: %s\n\n" +
-                "위 정보를 기반으로 PPT 프레젠테이션의 슬라이드 구조를 생성해주세요.\n" +
-                "각 슬라이드에는 제목, 내용, 그리고 선택적으로 메모가 포함될 수 있습니다.\n" +
-                "슬라이드 목록을 JSON 형식으로 반환해주세요. 각 슬라이드는 객체여야 하며, 슬라이드 제목, 내용, 메모를 포함합니다.",
-                title, content);
-
-        String outputFormat = 
-                "[{\"title\": \"슬라이드1 제목\", \"content\": \"슬라이드1 내용\", \"notes\": \"슬라이드1 메모\"}, ...]";
+                "다음은 CSV 로 내보낸 표 데이터입니다. (JSON 2차원 배열, 첫 번째 행은 열 제목)\n%s\n\n" +
+                "수정 지시: %s\n\n" +
+                "수정 지시에 따라 표 전체를 다시 작성해주세요. 지시와 관계없는 행과 열은 그대로 유지합니다.\n" +
+                "숫자는 따옴표 없는 JSON 숫자로, 날짜는 yyyy-MM-dd 형식으로 작성하고 수식은 사용하지 마세요.",
+                title, toJson(currentRows), instruction);
+
+        Map<String, Object> response = generateRoutedStructuredContent(DocumentRequest.DocumentType.CSV, prompt,
+                ROWS_FORMAT, options);
+
+        Object rows = response.containsKey("rows") ? response.get("rows") : response.get(TOP_LEVEL_ARRAY_KEY);
+        if (!(rows instanceof List<?> rowList)) {
+            throw new DocumentGenerationException("AI 응답에 표 데이터가 없습니다.");
+        }
+        return toRows(rowList);
+    }
+
+    /**
+     * 모델이 반환한 2차원 배열을 문자열 행 목록으로 변환합니다.
+     */
+    private List<List<String>> toRows(List<?> sheetData) {
+        List<List<String>> convertedRows = new ArrayList<>();
+        
+        for (Object row : sheetData) {
+            if (row instanceof List) {
+                List<String> convertedCells = new ArrayList<>();
+                
+                for (Object cell : (List<?>) row) {
+                    convertedCells.add(toCellText(cell));
+                }
+                
+                convertedRows.add(convertedCells);
+            }
+        }
         
-        Map<String, Object> response = generateStructuredContent(prompt, outputFormat);
+        return convertedRows;
+    }
+
+    /**
+     * 모델이 반환한 셀 값을 문자열로 변환합니다.
+     * 숫자는 지수 표기 없이 변환하여 엑셀 렌더링 시 숫자 셀로 판별되도록 합니다.
+     */
+    private String toCellText(Object cell) {
+        if (cell == null) {
+            return "";
+        }
+        if (cell instanceof Double || cell instanceof Float || cell instanceof BigDecimal) {
+            return new BigDecimal(cell.toString()).stripTrailingZeros().toPlainString();
+        }
+        return cell.toString();
+    }
+
+    @Override
+    public List<Map<String, String>> generatePptStructure(String title, String content, Map<String, Object> options) {
+        String prompt = buildContentPrompt(PPT_TEMPLATE, title, content, PPT_FORMAT);
+
+        Map<String, Object> response = generateRoutedStructuredContent(
+                DocumentRequest.DocumentType.POWERPOINT, prompt, PPT_FORMAT, options);
         
         List<Map<String, String>> slides = new ArrayList<>();
         
-        if (response.containsKey("slides") && response.get("slides") instanceof List) {
-            List<?> rawSlides = (List<?>) response.get("slides");
-            
-            for (Object slide : rawSlides) {
+        // {"slides": [...]} 형식 또는 요청한 형식대로 최상위 배열로 반환한 경우
+        Object rawSlides = response.containsKey("slides") ? response.get("slides") : response.get(TOP_LEVEL_ARRAY_KEY);
+        if (rawSlides instanceof List) {
+            for (Object slide : (List<?>) rawSlides) {
                 if (slide instanceof Map) {
-                    Map<?, ?> slideMap = (Map<?, ?>) slide;
-                    Map<String, String> convertedSlide = new HashMap<>();
-                    
-                    slideMap.forEach((k, v) -> convertedSlide.put(k.toString(), v != null ? v.toString() : ""));
-                    
-                    slides.add(convertedSlide);
+                    slides.add(toSlide((Map<?, ?>) slide));
                 }
             }
         } else {
             // 직접 응답이 슬라이드 배열인 경우를 처리
             for (Map.Entry<String, Object> entry : response.entrySet()) {
                 if (entry.getValue() instanceof Map) {
-                    Map<?, ?> slideMap = (Map<?, ?>) entry.getValue();
-                    Map<String, String> convertedSlide = new HashMap<>();
-                    
-                    slideMap.forEach((k, v) -> convertedSlide.put(k.toString(), v != null ? v.toString() : ""));
-                    
-                    slides.add(convertedSlide);
+                    slides.add(toSlide((Map<?, ?>) entry.getValue()));
                 }
             }
         }
         
         return slides;
     }
+
+    @Override
+    public Map<String, String> regeneratePptSlide(String title, Map<String, String> currentSlide,
+                                                  String instruction, Map<String, Object> options) {
+        String prompt = String.format(
+                "제목: %s\n\n" +
+                "다음은 PPT 프레젠테이션의 한 슬라이드입니다.\n%s\n\n" +
+                "수정 지시: %s\n\n" +
+                "수정 지시에 따라 이 슬라이드의 제목, 내용, 메모를 다시 작성해주세요. 내용의 각 항목은 줄바꿈으로 구분합니다.",
+                title, toJson(currentSlide), instruction);
+
+        Map<String, Object> response = generateRoutedStructuredContent(DocumentRequest.DocumentType.POWERPOINT,
+                prompt, "{\"title\": \"슬라이드 제목\", \"content\": \"슬라이드 내용\", \"notes\": \"슬라이드 메모\"}",
+                options);
+
+        return toSlide(response);
+    }
+
+    /**
+     * 모델이 반환한 슬라이드 객체를 문자열 맵으로 변환합니다.
+     */
+    private Map<String, String> toSlide(Map<?, ?> slideMap) {
+        Map<String, String> convertedSlide = new HashMap<>();
+        slideMap.forEach((k, v) -> convertedSlide.put(k.toString(), v != null ? v.toString() : ""));
+        return convertedSlide;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new DocumentGenerationException("기존 문서 구조를 JSON 으로 변환하는데 실패했습니다.", e);
+        }
+    }
+
+    /**
+     * 엑셀 셀 값 작성 규칙을 반환합니다. 수식은 app.document.excel.allow-formulas 가 켜진 경우에만 요청합니다.
+     */
+    private String excelValues() {
+        return allowFormulas ? EXCEL_VALUES_WITH_FORMULAS : EXCEL_VALUES;
+    }
+
+    /**
+     * 템플릿에 제목과 예산에 맞춘 내용을 채워 프롬프트를 만듭니다.
+     * 제목, 템플릿 문구, 반환 형식 안내도 모델 입력에 포함되므로 이 부분의 토큰을 먼저 빼고 내용 예산을 정합니다.
+     *
+     * @param template     제목과 내용 자리(%s 두 개)를 가진 프롬프트 템플릿
+     * @param title        문서 제목
+     * @param content      원본 내용
+     * @param outputFormat 반환 형식 예시
+     * @return 예산 이내의 프롬프트
+     */
+    private String buildContentPrompt(String template, String title, String content, String outputFormat) {
+        int overheadTokens = contentChunker.estimateTokens(String.format(template, title, ""))
+                + contentChunker.estimateTokens(String.format(STRUCTURED_SUFFIX, outputFormat));
+        return String.format(template, title, fitContentToBudget(title, content, overheadTokens));
+    }
+
+    /**
+     * 입력 내용을 프롬프트 예산에 맞춥니다.
+     * 최대 예산을 넘으면 거부하고, 청크 예산을 넘으면 청크별로 병렬 요약한 뒤 합칩니다.
+     * 요약을 {@value #MAX_REDUCE_DEPTH} 단계 반복해도 청크 예산을 넘으면 뒷부분을 잘라냅니다.
+     * 두 예산 모두 내용 이외의 프롬프트 토큰을 뺀 나머지를 내용에 배정합니다.
+     *
+     * @param title          문서 제목
+     * @param content        원본 내용
+     * @param overheadTokens 제목, 템플릿, 반환 형식 안내의 추정 토큰 수
+     * @return 예산 이내의 내용
+     * @throws DocumentGenerationException 입력이 최대 예산을 초과하는 경우
+     */
+    private String fitContentToBudget(String title, String content, int overheadTokens) {
+        int estimatedTokens = contentChunker.estimateTokens(content);
+
+        if (estimatedTokens + overheadTokens > maxInputTokens) {
+            throw new DocumentGenerationException(String.format(
+                    "입력 내용이 너무 큽니다. (추정 %d 토큰, 제목과 프롬프트 %d 토큰 포함, 최대 %d 토큰)",
+                    estimatedTokens + overheadTokens, overheadTokens, maxInputTokens));
+        }
+
+        int contentBudget = Math.max(MIN_CHUNK_TOKENS, chunkTokens - overheadTokens);
+        String reduced = content;
+        int depth = 0;
+
+        while (contentChunker.estimateTokens(reduced) > contentBudget && depth < MAX_REDUCE_DEPTH) {
+            reduced = summarizeChunks(title, reduced, contentBudget);
+            depth++;
+        }
+
+        if (depth > 0) {
+            log.debug("Content reduced from {} to {} estimated tokens in {} pass(es)",
+                    estimatedTokens, contentChunker.estimateTokens(reduced), depth);
+        }
+
+        // 요약을 반복해도 예산을 넘으면 청크 예산을 지키도록 뒷부분을 잘라냄
+        int reducedTokens = contentChunker.estimateTokens(reduced);
+        if (reducedTokens > contentBudget) {
+            log.warn("Content still {} estimated tokens after {} summarization pass(es), truncating to {} tokens",
+                    reducedTokens, depth, contentBudget);
+            reduced = contentChunker.truncate(reduced, contentBudget);
+        }
+
+        return reduced;
+    }
+
+    /**
+     * 내용을 요약 프롬프트 예산에 맞는 청크로 나누어 저비용 모델로 병렬 요약하고 원래 순서대로 합칩니다.
+     * 스트리밍 모드에서는 요약 호출을 논블로킹으로 병렬 진행하고, 그 외에는 청크마다 실행기 스레드를 사용합니다.
+     * 요약 작업을 실행기에 넣지 못하면 이미 넣은 작업을 취소하고 생성 오류로 처리합니다.
+     *
+     * @param title        문서 제목
+     * @param content      요약할 내용
+     * @param targetBudget 요약을 합친 결과의 목표 토큰 수
+     */
+    private String summarizeChunks(String title, String content, int targetBudget) {
+        // 요약 프롬프트도 제목과 안내 문구만큼 청크 예산을 차지함
+        int summaryOverhead = contentChunker.estimateTokens(String.format(SUMMARY_TEMPLATE, title, 0, 0, 0, ""));
+        List<String> chunks = contentChunker.split(content, Math.max(MIN_CHUNK_TOKENS, chunkTokens - summaryOverhead));
+        int chunkCount = chunks.size();
+        int targetTokens = Math.max(MIN_CHUNK_TOKENS, targetBudget / chunkCount);
+
+        String summaryModel = modelRouter.summaryModel();
+        log.debug("Summarizing {} chunks with {} (target {} tokens each)", chunkCount, summaryModel, targetTokens);
+
+        if (streaming) {
+            List<String> summaries = Flux.range(0, chunkCount)
+                    .flatMapSequential(i -> streamContent(
+                            String.format(SUMMARY_TEMPLATE, title, i + 1, chunkCount, targetTokens, chunks.get(i)),
+                            summaryModel), STREAM_CHUNK_CONCURRENCY)
+                    .collectList()
+                    .block();
+            return String.join("\n\n", summaries);
+        }
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < chunkCount; i++) {
+                String prompt = String.format(SUMMARY_TEMPLATE, title, i + 1, chunkCount, targetTokens, chunks.get(i));
+                futures.add(CompletableFuture.supplyAsync(() -> generateContent(prompt, summaryModel), aiChunkExecutor));
+            }
+        } catch (RejectedExecutionException e) {
+            // TaskRejectedException 포함: 실행기 큐가 가득 차면 호출 스레드에서 바로 던짐
+            futures.forEach(future -> future.cancel(true));
+            log.warn("Chunk summarization rejected after {} of {} chunks: {}", futures.size(), chunkCount, e.getMessage());
+            throw new DocumentGenerationException("입력 내용 요약 작업이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.", e);
+        }
+
+        try {
+            return String.join("\n\n", futures.stream().map(CompletableFuture::join).toList());
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new DocumentGenerationException("입력 내용 요약 중 오류가 발생했습니다.", e.getCause());
+        }
+    }
 }
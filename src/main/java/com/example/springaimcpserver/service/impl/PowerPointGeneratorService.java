@@ -1,48 +1,75 @@
 package com.example.springaimcpserver.service.impl;
 
+import com.example.springaimcpserver.event.DocumentStageEvent;
 import com.example.springaimcpserver.exception.DocumentGenerationException;
+import com.example.springaimcpserver.exception.DocumentStateConflictException;
+import com.example.springaimcpserver.exception.DocumentStructureGoneException;
+import com.example.springaimcpserver.model.DocumentPatchRequest;
 import com.example.springaimcpserver.model.DocumentRequest;
 import com.example.springaimcpserver.model.DocumentResponse;
 import com.example.springaimcpserver.service.AiService;
+import com.example.springaimcpserver.service.ArtifactStore;
+import com.example.springaimcpserver.service.CheckpointStore;
 import com.example.springaimcpserver.service.DocumentGeneratorService;
+import com.example.springaimcpserver.service.DocumentJobQueue;
+import com.example.springaimcpserver.service.DocumentJobScheduler;
+import com.example.springaimcpserver.service.DocumentStatusRegistry;
+import com.example.springaimcpserver.service.DocumentStructureStore;
+import com.example.springaimcpserver.service.DocumentWriter;
+import com.example.springaimcpserver.service.OoxmlPackageWriter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.sl.usermodel.TextParagraph;
 import org.apache.poi.xslf.usermodel.*;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
 import java.awt.*;
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PowerPointGeneratorService implements DocumentGeneratorService {
 
+    private static final MediaType MEDIA_TYPE =
+            MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.presentationml.presentation");
+
+    private static final TypeReference<List<Map<String, String>>> STRUCTURE_TYPE = new TypeReference<>() {
+    };
+
     private final AiService aiService;
-    
-    @Value("${app.document.temp-dir}")
-    private String tempDir;
-    
-    // 문서 상태를 저장하는 인메모리 저장소
-    private final Map<String, DocumentResponse> documentStatusMap = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher eventPublisher;
+    private final DocumentJobScheduler jobScheduler;
+    private final DocumentStatusRegistry statusRegistry;
+    private final CheckpointStore checkpointStore;
+    private final DocumentStructureStore structureStore;
+    private final Optional<DocumentJobQueue> jobQueue;
+    private final MeterRegistry meterRegistry;
+    private final OoxmlPackageWriter packageWriter;
+    private final ArtifactStore artifactStore;
 
     @Override
-    @Async
     public CompletableFuture<DocumentResponse> generateDocument(DocumentRequest request) {
         if (request.getDocumentType() != DocumentRequest.DocumentType.POWERPOINT) {
             throw new IllegalArgumentException("파워포인트 문서 생성 요청이 아닙니다.");
@@ -50,41 +77,216 @@ public class PowerPointGeneratorService implements DocumentGeneratorService {
 
         String documentId = UUID.randomUUID().toString();
         DocumentResponse processingResponse = DocumentResponse.processing(documentId, request.getTitle());
-        documentStatusMap.put(documentId, processingResponse);
+        statusRegistry.save(DocumentRequest.DocumentType.POWERPOINT, processingResponse);
+        publishStage(documentId, request, DocumentStageEvent.Stage.ACCEPTED);
+
+        // 클러스터 모드에서는 공유 작업 큐에 넣어 어느 노드든 가져가 실행하며, 결과는 상태 조회로 확인
+        if (jobQueue.isPresent()) {
+            jobQueue.get().enqueue(documentId, request);
+            return CompletableFuture.completedFuture(processingResponse);
+        }
+
+        // 모델 출력 없이 요청만 남겨, 종료로 시작하지 못한 작업도 재시작 후 CheckpointRecovery 가 다시 실행
+        checkpointStore.save(documentId, request, null);
+        return jobScheduler.submit(request, () -> generate(documentId, request))
+                .whenComplete((response, ex) -> {
+                    // generate 는 종료로 중단된 경우가 아니면 실패도 응답으로 반환하므로, 여기서 받는 예외는 대기열이 가득 차 거부된 경우
+                    if (ex != null && !jobScheduler.isShuttingDown()) {
+                        statusRegistry.save(DocumentRequest.DocumentType.POWERPOINT,
+                                DocumentResponse.failed(documentId, request.getTitle(), ex.getMessage()));
+                        checkpointStore.delete(documentId);
+                        publishStage(documentId, request, DocumentStageEvent.Stage.FAILED);
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<DocumentResponse> runQueuedJob(String documentId, DocumentRequest request) {
+        return jobScheduler.submit(request, () -> generate(documentId, request));
+    }
+
+    /**
+     * AI 로 문서 구조를 생성하고 파일로 렌더링합니다.
+     *
+     * @param documentId 문서 ID
+     * @param request 문서 생성 요청 객체
+     * @return 완료 또는 실패 응답
+     */
+    private DocumentResponse generate(String documentId, DocumentRequest request) {
+        try {
+            // 렌더링 중 중단되었던 작업은 체크포인트에 남은 모델 출력으로 렌더링만 다시 수행
+            Optional<List<Map<String, String>>> checkpointed = checkpointStore.findStructure(documentId, STRUCTURE_TYPE);
+            List<Map<String, String>> pptStructure;
+            if (checkpointed.isPresent()) {
+                log.info("Resuming document {} from checkpoint", documentId);
+                pptStructure = checkpointed.get();
+            } else {
+                publishStage(documentId, request, DocumentStageEvent.Stage.GENERATING_CONTENT);
 
-        return CompletableFuture.supplyAsync(() -> {
-            try {
                 // AI 서비스를 통해 PPT 구조 생성
-                List<Map<String, String>> pptStructure = aiService.generatePptStructure(
-                        request.getTitle(), request.getContent());
-                
-                // 실제 PPT 파일 생성
-                String fileName = createPowerPointFile(request.getTitle(), pptStructure);
-                
-                // 완료 응답 생성
-                String fileUrl = "/api/documents/ppt/" + fileName;
-                String downloadUrl = "/api/documents/ppt/download/" + fileName;
-                
+                pptStructure = aiService.generatePptStructure(
+                        request.getTitle(), request.getContent(), request.getAdditionalOptions());
+                checkpointStore.save(documentId, request, pptStructure);
+            }
+            
+            publishStage(documentId, request, DocumentStageEvent.Stage.RENDERING);
+
+            // 실제 PPT 파일 생성
+            ArtifactStore.Artifact artifact = createPowerPointFile(request.getTitle(), pptStructure);
+            structureStore.save(documentId, request, pptStructure);
+            
+            // 완료 응답 생성
+            DocumentResponse completedResponse = DocumentResponse.completed(
+                    documentId, request.getTitle(), artifact.fileName(), artifact.contentHash());
+            
+            statusRegistry.save(DocumentRequest.DocumentType.POWERPOINT, completedResponse);
+            checkpointStore.delete(documentId);
+            publishStage(documentId, request, DocumentStageEvent.Stage.COMPLETED);
+            return completedResponse;
+            
+        } catch (Exception e) {
+            if (jobScheduler.isShutdownInterruption(e)) {
+                // 종료로 중단된 작업은 실패로 기록하지 않고 체크포인트를 남겨 재시작 후(또는 다른 노드에서) 이어서 처리
+                log.warn("Document {} interrupted by shutdown: {}", documentId, e.getMessage());
+                throw new RejectedExecutionException("서버 종료로 작업이 중단되었습니다.");
+            }
+            log.error("문서 생성 중 오류 발생: {}", e.getMessage(), e);
+            DocumentResponse failedResponse = DocumentResponse.failed(
+                    documentId, request.getTitle(), e.getMessage());
+            statusRegistry.save(DocumentRequest.DocumentType.POWERPOINT, failedResponse);
+            checkpointStore.delete(documentId);
+            publishStage(documentId, request, DocumentStageEvent.Stage.FAILED);
+            return failedResponse;
+        }
+    }
+
+    @Override
+    public CompletableFuture<DocumentResponse> patchDocument(String documentId, DocumentPatchRequest patch) {
+        if (patch.getSlides() == null || patch.getSlides().isEmpty()) {
+            throw new IllegalArgumentException("다시 생성할 슬라이드 번호를 지정해야 합니다.");
+        }
+
+        DocumentResponse current = getDocumentStatus(documentId);
+        if (current.getStatus() != DocumentResponse.DocumentStatus.COMPLETED) {
+            throw new DocumentStateConflictException("생성이 완료된 문서만 수정할 수 있습니다.");
+        }
+        DocumentStructureStore.Structure<List<Map<String, String>>> generated =
+                structureStore.find(documentId, STRUCTURE_TYPE)
+                        .orElseThrow(() -> new DocumentStructureGoneException("부분 수정에 필요한 원본 구조가 없는 문서입니다."));
+
+        // 1번은 제목 슬라이드이므로 내용 슬라이드는 2번부터
+        int lastSlide = generated.structure().size() + 1;
+        for (Integer slideNumber : patch.getSlides()) {
+            if (slideNumber == null || slideNumber < 2 || slideNumber > lastSlide) {
+                throw new IllegalArgumentException(
+                        String.format("슬라이드 번호는 2에서 %d 사이여야 합니다: %s", lastSlide, slideNumber));
+            }
+        }
+
+        // 완료 상태에서 처리 중으로 바꾸는 데 성공한 요청만 진행하여 같은 문서에 대한 동시 수정을 막음
+        if (!statusRegistry.replaceIfStatus(DocumentRequest.DocumentType.POWERPOINT, documentId,
+                DocumentResponse.DocumentStatus.COMPLETED, DocumentResponse.processing(documentId, current.getTitle()))) {
+            throw new DocumentStateConflictException("이미 수정 중인 문서입니다.");
+        }
+
+        DocumentRequest request = generated.request();
+        publishStage(documentId, request, DocumentStageEvent.Stage.ACCEPTED);
+
+        return jobScheduler.submit(request, () -> {
+            try {
+                publishStage(documentId, request, DocumentStageEvent.Stage.GENERATING_CONTENT);
+
+                // 대상 슬라이드만 AI 로 다시 생성
+                Map<Integer, Map<String, String>> changedSlides = new TreeMap<>();
+                for (Integer slideNumber : patch.getSlides()) {
+                    Map<String, String> currentSlide = generated.structure().get(slideNumber - 2);
+                    changedSlides.put(slideNumber, aiService.regeneratePptSlide(request.getTitle(), currentSlide,
+                            patch.getInstruction(), request.getAdditionalOptions()));
+                }
+
+                publishStage(documentId, request, DocumentStageEvent.Stage.RENDERING);
+
+                // 기존 파일을 열어 대상 슬라이드만 교체
+                File sourceFile = artifactStore.resolve(current).toFile();
+                ArtifactStore.Artifact artifact = savePowerPointFile(request.getTitle(),
+                        out -> patchPresentation(sourceFile, changedSlides, out));
+
+                List<Map<String, String>> slides = new ArrayList<>(generated.structure());
+                changedSlides.forEach((slideNumber, slide) -> slides.set(slideNumber - 2, slide));
+                structureStore.save(documentId, request, slides);
+
                 DocumentResponse completedResponse = DocumentResponse.completed(
-                        documentId, request.getTitle(), fileName, fileUrl, downloadUrl);
-                
-                documentStatusMap.put(documentId, completedResponse);
+                        documentId, request.getTitle(), artifact.fileName(), artifact.contentHash());
+
+                statusRegistry.save(DocumentRequest.DocumentType.POWERPOINT, completedResponse);
+                artifactStore.release(current.getContentHash());
+                publishStage(documentId, request, DocumentStageEvent.Stage.COMPLETED);
                 return completedResponse;
-                
+
             } catch (Exception e) {
-                log.error("문서 생성 중 오류 발생: {}", e.getMessage(), e);
-                DocumentResponse failedResponse = DocumentResponse.failed(
-                        documentId, request.getTitle(), e.getMessage());
-                documentStatusMap.put(documentId, failedResponse);
-                return failedResponse;
+                log.error("문서 수정 중 오류 발생: {}", e.getMessage(), e);
+                // 수정에 실패해도 기존 문서는 그대로 사용할 수 있도록 이전 상태로 되돌림
+                statusRegistry.save(DocumentRequest.DocumentType.POWERPOINT, current);
+                publishStage(documentId, request, DocumentStageEvent.Stage.FAILED);
+                return DocumentResponse.failed(documentId, request.getTitle(), e.getMessage());
+            }
+        }).whenComplete((response, ex) -> {
+            // 대기열이 가득 차거나 종료 중이어서 실행되지 못한 수정은 처리 중 상태로 남지 않도록 이전 상태로 되돌림
+            if (ex != null) {
+                statusRegistry.save(DocumentRequest.DocumentType.POWERPOINT, current);
+                publishStage(documentId, request, DocumentStageEvent.Stage.FAILED);
             }
         });
     }
 
+    @Override
+    public CompletableFuture<DocumentWriter> renderInline(DocumentRequest request) {
+        if (request.getDocumentType() != DocumentRequest.DocumentType.POWERPOINT) {
+            throw new IllegalArgumentException("파워포인트 문서 생성 요청이 아닙니다.");
+        }
+
+        return jobScheduler.submit(request, () -> {
+            List<Map<String, String>> pptStructure = aiService.generatePptStructure(
+                    request.getTitle(), request.getContent(), request.getAdditionalOptions());
+            DocumentWriter writer = out -> writePresentation(request.getTitle(), pptStructure, out, false);
+            return writer;
+        });
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".pptx";
+    }
+
+    @Override
+    public void warmUp() {
+        List<Map<String, String>> sample = List.of(Map.of(
+                "title", "Warmup",
+                "content", "첫 번째 줄\n두 번째 줄",
+                "notes", "샘플 메모"));
+        try {
+            writePresentation("Warmup", sample, OutputStream.nullOutputStream(), true);
+        } catch (IOException e) {
+            throw new DocumentGenerationException("PowerPoint 워밍업 실패: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public DocumentResponse getDocumentStatus(String documentId) {
-        return documentStatusMap.getOrDefault(documentId, 
-                DocumentResponse.failed(documentId, "Unknown", "문서를 찾을 수 없습니다."));
+        return statusRegistry.find(DocumentRequest.DocumentType.POWERPOINT, documentId)
+                .orElseGet(() -> DocumentResponse.failed(documentId, "Unknown", "문서를 찾을 수 없습니다."));
+    }
+
+    /**
+     * 문서 생성 단계 변경 이벤트를 발행합니다.
+     */
+    private void publishStage(String documentId, DocumentRequest request, DocumentStageEvent.Stage stage) {
+        eventPublisher.publishEvent(new DocumentStageEvent(this, documentId, request, stage));
     }
 
     /**
@@ -92,26 +294,62 @@ public class PowerPointGeneratorService implements DocumentGeneratorService {
      * 
      * @param title 문서 제목
      * @param slides 슬라이드 데이터
-     * @return 생성된 파일 이름
+     * @return 저장된 파일 정보
+     * @throws DocumentGenerationException 문서 생성 중 오류 발생 시
+     */
+    private ArtifactStore.Artifact createPowerPointFile(String title, List<Map<String, String>> slides) throws DocumentGenerationException {
+        return savePowerPointFile(title, out -> writePresentation(title, slides, out, true));
+    }
+
+    /**
+     * PowerPoint 파일을 내용 해시로 저장합니다.
+     *
+     * @param title 문서 제목
+     * @param writer 프레젠테이션 기록 함수
+     * @return 저장된 파일 정보
      * @throws DocumentGenerationException 문서 생성 중 오류 발생 시
      */
-    private String createPowerPointFile(String title, List<Map<String, String>> slides) throws DocumentGenerationException {
+    private ArtifactStore.Artifact savePowerPointFile(String title, DocumentWriter writer) throws DocumentGenerationException {
         // 파일 이름 생성 (현재 시간 포함)
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
         String safeName = title.replaceAll("[^a-zA-Z0-9가-힣]", "_");
         String fileName = safeName + "_" + timestamp + ".pptx";
         
-        // 임시 디렉토리 확인
-        Path dirPath = Paths.get(tempDir);
-        if (!Files.exists(dirPath)) {
-            try {
-                Files.createDirectories(dirPath);
-            } catch (IOException e) {
-                throw new DocumentGenerationException("임시 디렉토리 생성 실패: " + e.getMessage(), e);
-            }
-        }
-        
         // PowerPoint 파일 생성
+        long startTime = System.nanoTime();
+        ArtifactStore.Artifact artifact;
+        try {
+            artifact = artifactStore.store(fileName, writer);
+        } catch (IOException e) {
+            throw new DocumentGenerationException("PowerPoint 파일 생성 실패: " + e.getMessage(), e);
+        }
+
+        long elapsed = System.nanoTime() - startTime;
+        Timer.builder("documents.render")
+                .tag("type", "powerpoint")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("documents.output.size")
+                .tag("type", "powerpoint")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(artifact.size());
+
+        log.info("Rendered {} ({} bytes) in {} ms", fileName, artifact.size(), elapsed / 1_000_000);
+        return artifact;
+    }
+
+    /**
+     * PowerPoint 프레젠테이션을 생성하여 출력 스트림에 기록합니다.
+     * 
+     * @param title 문서 제목
+     * @param slides 슬라이드 데이터
+     * @param out 출력 스트림
+     * @param normalize 내용 해시 저장소에 저장하는 경우 true (인라인 응답은 POI 출력을 그대로 전송)
+     * @throws IOException 기록 중 오류 발생 시
+     */
+    private void writePresentation(String title, List<Map<String, String>> slides, OutputStream out,
+                                   boolean normalize) throws IOException {
         try (XMLSlideShow ppt = new XMLSlideShow()) {
             // 마스터 슬라이드 레이아웃 설정
             XSLFSlideMaster defaultMaster = ppt.getSlideMasters().get(0);
@@ -136,67 +374,89 @@ public class PowerPointGeneratorService implements DocumentGeneratorService {
             
             // 슬라이드 생성
             for (Map<String, String> slideData : slides) {
-                String slideTitle = slideData.getOrDefault("title", "");
-                String slideContent = slideData.getOrDefault("content", "");
-                String slideNotes = slideData.getOrDefault("notes", "");
-                
                 XSLFSlide slide = ppt.createSlide(titleAndContentLayout);
-                
-                // 제목 설정
-                XSLFTextShape titlePlaceholder = slide.getPlaceholder(0);
-                if (titlePlaceholder != null) {
-                    titlePlaceholder.setText(slideTitle);
-                    titlePlaceholder.setFillColor(new Color(240, 240, 240));
-                    
-                    XSLFTextParagraph slideTitleParagraph = titlePlaceholder.getTextParagraphs().get(0);
-                    XSLFTextRun slideTitleRun = slideTitleParagraph.getTextRuns().get(0);
-                    slideTitleRun.setFontSize(32.);
-                    slideTitleRun.setFontFamily("맑은 고딕");
-                    slideTitleRun.setBold(true);
-                    slideTitleRun.setFontColor(new Color(44, 62, 80));
-                }
-                
-                // 내용 설정
-                XSLFTextShape contentPlaceholder = slide.getPlaceholder(1);
-                if (contentPlaceholder != null) {
-                    contentPlaceholder.clearText();
-                    
-                    // 내용 줄 단위로 분할
-                    String[] lines = slideContent.split("\n");
-                    boolean isFirstLine = true;
-                    
-                    for (String line : lines) {
-                        XSLFTextParagraph paragraph = isFirstLine ? 
-                                contentPlaceholder.addNewTextParagraph() : 
-                                contentPlaceholder.addNewTextParagraph();
-                        
-                        XSLFTextRun run = paragraph.addNewTextRun();
-                        run.setText(line);
-                        run.setFontSize(20.);
-                        run.setFontFamily("맑은 고딕");
-                        
-                        isFirstLine = false;
-                    }
-                }
-                
-                // 슬라이드 노트 추가
-                if (!slideNotes.isBlank()) {
-                    XSLFNotes notes = ppt.getNotesSlide(slide);
-                    XSLFTextShape notesShape = notes.getPlaceholder(1);
-                    notesShape.setText(slideNotes);
-                }
+                fillSlide(ppt, slide, slideData);
             }
             
-            // 파일 저장
-            File outputFile = new File(tempDir, fileName);
-            try (FileOutputStream fileOut = new FileOutputStream(outputFile)) {
-                ppt.write(fileOut);
-            }
+            packageWriter.write(DocumentRequest.DocumentType.POWERPOINT, ppt, out, normalize);
+        }
+    }
+
+    /**
+     * 슬라이드의 제목, 내용, 노트를 채웁니다. 기존 슬라이드이면 내용을 교체합니다.
+     *
+     * @param ppt 프레젠테이션
+     * @param slide 대상 슬라이드
+     * @param slideData 슬라이드 데이터 (title, content, notes)
+     */
+    private void fillSlide(XMLSlideShow ppt, XSLFSlide slide, Map<String, String> slideData) {
+        String slideTitle = slideData.getOrDefault("title", "");
+        String slideContent = slideData.getOrDefault("content", "");
+        String slideNotes = slideData.getOrDefault("notes", "");
+        
+        // 제목 설정
+        XSLFTextShape titlePlaceholder = slide.getPlaceholder(0);
+        if (titlePlaceholder != null) {
+            titlePlaceholder.setText(slideTitle);
+            titlePlaceholder.setFillColor(new Color(240, 240, 240));
             
-            return fileName;
+            XSLFTextParagraph slideTitleParagraph = titlePlaceholder.getTextParagraphs().get(0);
+            XSLFTextRun slideTitleRun = slideTitleParagraph.getTextRuns().get(0);
+            slideTitleRun.setFontSize(32.);
+            slideTitleRun.setFontFamily("맑은 고딕");
+            slideTitleRun.setBold(true);
+            slideTitleRun.setFontColor(new Color(44, 62, 80));
+        }
+        
+        // 내용 설정
+        XSLFTextShape contentPlaceholder = slide.getPlaceholder(1);
+        if (contentPlaceholder != null) {
+            contentPlaceholder.clearText();
             
-        } catch (IOException e) {
-            throw new DocumentGenerationException("PowerPoint 파일 생성 실패: " + e.getMessage(), e);
+            // 내용 줄 단위로 분할
+            String[] lines = slideContent.split("\n");
+            boolean isFirstLine = true;
+            
+            for (String line : lines) {
+                XSLFTextParagraph paragraph = isFirstLine ? 
+                        contentPlaceholder.addNewTextParagraph() : 
+                        contentPlaceholder.addNewTextParagraph();
+                
+                XSLFTextRun run = paragraph.addNewTextRun();
+                run.setText(line);
+                run.setFontSize(20.);
+                run.setFontFamily("맑은 고딕");
+                
+                isFirstLine = false;
+            }
+        }
+        
+        // 슬라이드 노트 추가 (기존 슬라이드를 교체할 때는 이전 노트를 비움)
+        if (!slideNotes.isBlank() || slide.getNotes() != null) {
+            XSLFNotes notes = ppt.getNotesSlide(slide);
+            XSLFTextShape notesShape = notes.getPlaceholder(1);
+            notesShape.setText(slideNotes);
+        }
+    }
+
+    /**
+     * 기존 PowerPoint 파일을 열어 지정한 슬라이드만 교체한 프레젠테이션을 출력 스트림에 기록합니다.
+     * 나머지 슬라이드는 AI 호출이나 다시 렌더링하지 않고 그대로 유지합니다.
+     *
+     * @param sourceFile 기존 PowerPoint 파일
+     * @param changedSlides 교체할 슬라이드 번호(1부터)와 데이터
+     * @param out 출력 스트림
+     * @throws IOException 기록 중 오류 발생 시
+     */
+    private void patchPresentation(File sourceFile, Map<Integer, Map<String, String>> changedSlides,
+                                   OutputStream out) throws IOException {
+        // 같은 이름의 파일로 저장될 수 있으므로 파일을 직접 열지 않고 메모리로 읽음
+        try (InputStream in = new FileInputStream(sourceFile);
+             XMLSlideShow ppt = new XMLSlideShow(in)) {
+            List<XSLFSlide> slides = ppt.getSlides();
+            changedSlides.forEach((slideNumber, slideData) -> fillSlide(ppt, slides.get(slideNumber - 1), slideData));
+
+            packageWriter.write(DocumentRequest.DocumentType.POWERPOINT, ppt, out, true);
         }
     }
 }
@@ -0,0 +1,297 @@
+package com.example.springaimcpserver.service.impl;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTRst;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * 문자열 값의 형식을 판별하여 숫자, 날짜, 불리언, 수식 셀로 기록하는 헬퍼
+ * '=' 로 시작하는 값은 수식 주입을 막기 위해 기본적으로 문자열 셀로 기록하며, 수식을 허용한 경우에만 수식 셀로 기록합니다.
+ * 고유 값 비율이 높은 문자열 열은 공유 문자열 테이블 대신 인라인 문자열로 기록합니다.
+ */
+class TypedCellWriter {
+
+    private static final Pattern INTEGER = Pattern.compile("-?(0|[1-9]\\d*)");
+    private static final Pattern DECIMAL = Pattern.compile("-?(0|[1-9]\\d*)\\.\\d+([eE][+-]?\\d+)?");
+    private static final Pattern GROUPED = Pattern.compile("-?[1-9]\\d{0,2}(,\\d{3})+(\\.\\d+)?");
+    private static final Pattern PERCENT = Pattern.compile("-?(0|[1-9]\\d*)(\\.\\d+)?%");
+    private static final Pattern DATE = Pattern.compile("\\d{4}[-/.]\\d{1,2}[-/.]\\d{1,2}");
+    private static final Pattern DATE_TIME = Pattern.compile("\\d{4}-\\d{2}-\\d{2}[T ]\\d{2}:\\d{2}(:\\d{2})?");
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-M-d");
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]");
+
+    // 이 비율 이상이 서로 다른 값인 열은 공유 문자열로 중복을 줄일 수 없으므로 인라인 문자열 사용
+    private static final double INLINE_DISTINCT_RATIO = 0.5;
+
+    // 행 수가 이보다 적은 열은 판단 근거가 부족하므로 공유 문자열 유지
+    private static final int INLINE_MIN_ROWS = 20;
+
+    enum Kind {
+        BLANK,
+        STRING,
+        NUMBER,
+        PERCENT,
+        DATE,
+        DATE_TIME,
+        BOOLEAN,
+        FORMULA
+    }
+
+    private final CellStyle baseStyle;
+    private final CellStyle groupedStyle;
+    private final CellStyle percentStyle;
+    private final CellStyle dateStyle;
+    private final CellStyle dateTimeStyle;
+    private final boolean formulas;
+    private final Map<Kind, Integer> counts = new EnumMap<>(Kind.class);
+    private int inlineStrings;
+
+    /**
+     * 수식을 허용하지 않는 writer 를 만듭니다.
+     *
+     * @param workbook  대상 워크북
+     * @param baseStyle 데이터 셀 기본 스타일 (nullable, 숫자/날짜 스타일은 이를 복제하여 생성)
+     */
+    TypedCellWriter(Workbook workbook, CellStyle baseStyle) {
+        this(workbook, baseStyle, false);
+    }
+
+    /**
+     * @param workbook  대상 워크북
+     * @param baseStyle 데이터 셀 기본 스타일 (nullable, 숫자/날짜 스타일은 이를 복제하여 생성)
+     * @param formulas  '=' 로 시작하는 값을 수식 셀로 기록할지 여부 (모델이 생성한 데이터에만 사용)
+     */
+    TypedCellWriter(Workbook workbook, CellStyle baseStyle, boolean formulas) {
+        DataFormat dataFormat = workbook.createDataFormat();
+        this.baseStyle = baseStyle;
+        this.formulas = formulas;
+        this.groupedStyle = derivedStyle(workbook, baseStyle, dataFormat.getFormat("#,##0.##"));
+        this.percentStyle = derivedStyle(workbook, baseStyle, dataFormat.getFormat("0.##%"));
+        this.dateStyle = derivedStyle(workbook, baseStyle, dataFormat.getFormat("yyyy-mm-dd"));
+        this.dateTimeStyle = derivedStyle(workbook, baseStyle, dataFormat.getFormat("yyyy-mm-dd hh:mm:ss"));
+    }
+
+    /**
+     * 수식을 허용하지 않고 값의 형식을 판별합니다. '=' 로 시작하는 값은 문자열입니다.
+     */
+    static Kind detect(String value) {
+        return detect(value, false);
+    }
+
+    /**
+     * 값의 형식을 판별합니다. 앞자리 0이 있는 숫자(우편번호, 코드 등)는 문자열로 취급합니다.
+     *
+     * @param value    문자열 값
+     * @param formulas '=' 로 시작하는 값을 수식으로 볼지 여부
+     */
+    static Kind detect(String value, boolean formulas) {
+        if (value == null || value.isEmpty()) {
+            return Kind.BLANK;
+        }
+
+        String trimmed = value.trim();
+        if (trimmed.length() > 1 && trimmed.charAt(0) == '=') {
+            return formulas ? Kind.FORMULA : Kind.STRING;
+        }
+        if (trimmed.equalsIgnoreCase("true") || trimmed.equalsIgnoreCase("false")) {
+            return Kind.BOOLEAN;
+        }
+        // 15자리를 넘는 정수는 double 정밀도를 넘으므로 문자열 유지
+        if ((INTEGER.matcher(trimmed).matches() && trimmed.length() <= 15)
+                || DECIMAL.matcher(trimmed).matches()
+                || GROUPED.matcher(trimmed).matches()) {
+            return Kind.NUMBER;
+        }
+        if (PERCENT.matcher(trimmed).matches()) {
+            return Kind.PERCENT;
+        }
+        if (DATE.matcher(trimmed).matches() && parseDate(trimmed) != null) {
+            return Kind.DATE;
+        }
+        if (DATE_TIME.matcher(trimmed).matches() && parseDateTime(trimmed) != null) {
+            return Kind.DATE_TIME;
+        }
+        return Kind.STRING;
+    }
+
+    /**
+     * 각 열을 인라인 문자열로 기록할지 결정합니다.
+     *
+     * @param rows 헤더를 포함한 시트 데이터
+     * @return 열별 인라인 문자열 사용 여부
+     */
+    static boolean[] inlineColumns(List<List<String>> rows) {
+        int columnCount = rows.stream().mapToInt(List::size).max().orElse(0);
+        boolean[] inline = new boolean[columnCount];
+
+        for (int column = 0; column < columnCount; column++) {
+            Set<String> distinct = new HashSet<>();
+            int strings = 0;
+
+            for (int i = 1; i < rows.size(); i++) {
+                List<String> row = rows.get(i);
+                if (column < row.size() && detect(row.get(column)) == Kind.STRING) {
+                    distinct.add(row.get(column));
+                    strings++;
+                }
+            }
+
+            inline[column] = strings >= INLINE_MIN_ROWS && distinct.size() >= strings * INLINE_DISTINCT_RATIO;
+        }
+
+        return inline;
+    }
+
+    /**
+     * 값을 판별된 형식으로 셀에 기록합니다.
+     *
+     * @param cell   대상 셀
+     * @param value  문자열 값
+     * @param inline 문자열일 때 인라인 문자열로 기록할지 여부 (XSSF 셀에만 적용)
+     */
+    void write(Cell cell, String value, boolean inline) {
+        Kind kind = detect(value, formulas);
+        counts.merge(kind, 1, Integer::sum);
+        String trimmed = value != null ? value.trim() : null;
+        CellStyle style = baseStyle;
+
+        switch (kind) {
+            case BLANK:
+                break;
+            case FORMULA:
+                try {
+                    cell.setCellFormula(trimmed.substring(1));
+                } catch (RuntimeException e) {
+                    // 해석할 수 없는 수식은 문자열로 남김
+                    writeString(cell, value, inline);
+                }
+                break;
+            case BOOLEAN:
+                cell.setCellValue(Boolean.parseBoolean(trimmed.toLowerCase(Locale.ROOT)));
+                break;
+            case NUMBER:
+                cell.setCellValue(Double.parseDouble(trimmed.replace(",", "")));
+                if (trimmed.indexOf(',') >= 0) {
+                    style = groupedStyle;
+                }
+                break;
+            case PERCENT:
+                cell.setCellValue(Double.parseDouble(trimmed.substring(0, trimmed.length() - 1)) / 100);
+                style = percentStyle;
+                break;
+            case DATE:
+                cell.setCellValue(parseDate(trimmed));
+                style = dateStyle;
+                break;
+            case DATE_TIME:
+                cell.setCellValue(parseDateTime(trimmed));
+                style = dateTimeStyle;
+                break;
+            default:
+                writeString(cell, value, inline);
+        }
+
+        if (style != null) {
+            cell.setCellStyle(style);
+        }
+    }
+
+    /**
+     * 지금까지 기록한 셀 수를 형식별로 요약합니다.
+     */
+    String summary() {
+        return counts + ", inlineStrings=" + inlineStrings;
+    }
+
+    private void writeString(Cell cell, String value, boolean inline) {
+        if (inline && cell instanceof XSSFCell xssfCell) {
+            CTCell ctCell = xssfCell.getCTCell();
+            ctCell.setT(STCellType.INLINE_STR);
+            CTRst inlineString = ctCell.isSetIs() ? ctCell.getIs() : ctCell.addNewIs();
+            inlineString.setT(value);
+            inlineStrings++;
+        } else {
+            cell.setCellValue(value);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value.replace('/', '-').replace('.', '-'), DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            return LocalDateTime.parse(value.replace('T', ' '), DATE_TIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static CellStyle derivedStyle(Workbook workbook, CellStyle baseStyle, short format) {
+        CellStyle base = baseStyle != null ? baseStyle : workbook.getCellStyleAt(0);
+        return findOrCreateStyle(workbook,
+                style -> style.getDataFormat() == format && sameAppearance(style, base),
+                style -> {
+                    style.cloneStyleFrom(base);
+                    style.setDataFormat(format);
+                });
+    }
+
+    /**
+     * 워크북에서 조건에 맞는 셀 스타일을 찾고, 없으면 새로 만듭니다.
+     * 기존 파일을 열어 수정할 때마다 같은 스타일이 늘어나지 않도록 합니다.
+     *
+     * @param workbook    대상 워크북
+     * @param matcher     재사용할 스타일 조건
+     * @param initializer 새 스타일 설정 함수
+     * @return 기존 또는 새 스타일
+     */
+    static CellStyle findOrCreateStyle(Workbook workbook, Predicate<CellStyle> matcher, Consumer<CellStyle> initializer) {
+        for (int i = 0; i < workbook.getNumCellStyles(); i++) {
+            CellStyle style = workbook.getCellStyleAt(i);
+            if (matcher.test(style)) {
+                return style;
+            }
+        }
+        CellStyle style = workbook.createCellStyle();
+        initializer.accept(style);
+        return style;
+    }
+
+    private static boolean sameAppearance(CellStyle style, CellStyle base) {
+        return style.getFontIndex() == base.getFontIndex()
+                && style.getAlignment() == base.getAlignment()
+                && style.getVerticalAlignment() == base.getVerticalAlignment()
+                && style.getWrapText() == base.getWrapText()
+                && style.getFillPattern() == base.getFillPattern()
+                && style.getFillForegroundColor() == base.getFillForegroundColor()
+                && style.getBorderTop() == base.getBorderTop()
+                && style.getBorderBottom() == base.getBorderBottom()
+                && style.getBorderLeft() == base.getBorderLeft()
+                && style.getBorderRight() == base.getBorderRight();
+    }
+}
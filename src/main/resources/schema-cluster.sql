@@ -0,0 +1,26 @@
+-- 클러스터 모드(cluster 프로파일) 공유 테이블
+
+CREATE TABLE IF NOT EXISTS document_status (
+    id            VARCHAR(64) NOT NULL,
+    document_type VARCHAR(32) NOT NULL,
+    status        VARCHAR(16) NOT NULL,
+    payload       TEXT        NOT NULL,
+    updated_at    TIMESTAMP   NOT NULL,
+    PRIMARY KEY (id, document_type)
+);
+
+CREATE TABLE IF NOT EXISTS document_jobs (
+    id          VARCHAR(64)  NOT NULL PRIMARY KEY,
+    lane        INT          NOT NULL,
+    tenant      VARCHAR(128) NOT NULL DEFAULT 'anonymous',
+    request     TEXT         NOT NULL,
+    owner       VARCHAR(128),
+    lease_until TIMESTAMP,
+    attempts    INT          NOT NULL DEFAULT 0,
+    enqueued_at TIMESTAMP    NOT NULL
+);
+
+-- 테넌트 열이 없던 기존 테이블에 추가
+ALTER TABLE document_jobs ADD COLUMN IF NOT EXISTS tenant VARCHAR(128) NOT NULL DEFAULT 'anonymous';
+
+CREATE INDEX IF NOT EXISTS idx_document_jobs_tenant_claim ON document_jobs (lane, tenant, enqueued_at);
@@ -0,0 +1,158 @@
+package com.example.springaimcpserver.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 파일 appender 에 직접 기록하는 방식과 logback-spring.xml 과 같은 설정의 AsyncAppender 를 거치는 방식의
+ * 호출 스레드 처리량과 기록/버린 줄 수를 비교합니다.
+ * 실행: ./gradlew benchmark --tests '*LoggingThroughputBenchmark'
+ */
+@Tag("benchmark")
+class LoggingThroughputBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int MESSAGES_PER_THREAD = 50_000;
+    private static final int WARMUP_ITERATIONS = 1;
+    private static final int ITERATIONS = 3;
+
+    // application.yml 의 app.logging.async 기본값
+    private static final int QUEUE_SIZE = 8192;
+    private static final int DISCARDING_THRESHOLD = 1024;
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%X{correlationId:-}] %t %logger{39} : %m%n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void compareDirectAndAsyncFileAppender() throws Exception {
+        Result direct = measure(false);
+        Result async = measure(true);
+
+        long total = (long) THREADS * MESSAGES_PER_THREAD;
+        System.out.printf("logging throughput: %d threads x %,d messages%n", THREADS, MESSAGES_PER_THREAD);
+        System.out.printf("  direct file : median %6d ms, %,10.0f msg/s on callers, %,d lines written%n",
+                direct.medianMillis(), total * 1000.0 / Math.max(1, direct.medianMillis()), direct.lines());
+        System.out.printf("  async file  : median %6d ms, %,10.0f msg/s on callers, %,d lines written%n",
+                async.medianMillis(), total * 1000.0 / Math.max(1, async.medianMillis()), async.lines());
+
+        assertThat(direct.lines()).isEqualTo(total);
+        assertThat(async.lines()).isPositive().isLessThanOrEqualTo(total);
+    }
+
+    private Result measure(boolean async) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            run(async, "warmup-" + async + "-" + i);
+        }
+
+        long[] millis = new long[ITERATIONS];
+        long lines = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            Result result = run(async, "run-" + async + "-" + i);
+            millis[i] = result.medianMillis();
+            lines = result.lines();
+        }
+
+        Arrays.sort(millis);
+        return new Result(millis[ITERATIONS / 2], lines);
+    }
+
+    /**
+     * 새 LoggerContext 에 파일 appender 를 구성하고 여러 스레드에서 로그를 남깁니다.
+     * 측정 시간은 호출 스레드가 로그를 모두 남길 때까지이며, 비동기 appender 의 대기열을 비우는 시간은 포함하지 않습니다.
+     */
+    private Result run(boolean async, String name) throws Exception {
+        Path file = tempDir.resolve(name + ".log");
+        LoggerContext context = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(QUEUE_SIZE);
+            asyncAppender.setDiscardingThreshold(DISCARDING_THRESHOLD);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+
+        Logger logger = context.getLogger(LoggingThroughputBenchmark.class);
+        logger.addAppender(appender);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long elapsed;
+        try {
+            long startTime = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> logMessages(logger, thread)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            elapsed = (System.nanoTime() - startTime) / 1_000_000;
+        } finally {
+            executor.shutdown();
+            // 비동기 appender 는 stop 에서 대기열에 남은 로그를 마저 기록
+            context.stop();
+        }
+
+        return new Result(elapsed, countLines(file));
+    }
+
+    private static void logMessages(Logger logger, int thread) {
+        MDC.put(LogPayloads.CORRELATION_ID_KEY, "bench-" + thread);
+        try {
+            for (int i = 0; i < MESSAGES_PER_THREAD; i++) {
+                logger.info("Document {} rendered {} rows in {} ms", "doc-" + thread, i, i % 250);
+            }
+        } finally {
+            MDC.remove(LogPayloads.CORRELATION_ID_KEY);
+        }
+    }
+
+    private static long countLines(Path file) throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.count();
+        }
+    }
+
+    private record Result(long medianMillis, long lines) {
+    }
+}
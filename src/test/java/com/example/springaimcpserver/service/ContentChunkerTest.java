@@ -0,0 +1,95 @@
+package com.example.springaimcpserver.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentChunkerTest {
+
+    private final ContentChunker chunker = new ContentChunker();
+
+    @Test
+    void estimatesAsciiByFourCharsAndOtherCharsOneEach() {
+        assertThat(chunker.estimateTokens(null)).isZero();
+        assertThat(chunker.estimateTokens("")).isZero();
+        assertThat(chunker.estimateTokens("abcd")).isEqualTo(1);
+        assertThat(chunker.estimateTokens("abcde")).isEqualTo(2);
+        assertThat(chunker.estimateTokens("한글")).isEqualTo(2);
+        assertThat(chunker.estimateTokens("ab한글")).isEqualTo(3);
+    }
+
+    @Test
+    void keepsParagraphsTogetherWhenTheyFit() {
+        List<String> chunks = chunker.split("one\n\ntwo", 100);
+
+        assertThat(chunks).containsExactly("one\n\ntwo");
+    }
+
+    @Test
+    void splitsOnParagraphsBeforeSentences() {
+        String text = "First sentence here. Second sentence here. Third one.\n\nShort para.";
+
+        List<String> chunks = chunker.split(text, 8);
+
+        assertThat(chunks).containsExactly(
+                "First sentence here.",
+                "Second sentence here.",
+                "Third one.\n\nShort para.");
+    }
+
+    @Test
+    void hardSplitsTextWithoutBoundaries() {
+        String text = "a".repeat(100);
+
+        List<String> chunks = chunker.split(text, 5);
+
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunker.estimateTokens(chunk)).isLessThanOrEqualTo(5));
+        assertThat(String.join("", chunks)).isEqualTo(text);
+    }
+
+    @Test
+    void hardSplitsNonAsciiTextWithinBudget() {
+        String text = "가".repeat(23);
+
+        List<String> chunks = chunker.split(text, 5);
+
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunker.estimateTokens(chunk)).isLessThanOrEqualTo(5));
+        assertThat(String.join("", chunks)).isEqualTo(text);
+    }
+
+    @Test
+    void countsSeparatorsTowardsTheBudget() {
+        String paragraphs = String.join("\n\n", List.of("가", "나", "다", "라", "마", "바"));
+        String sentences = "가. 나. 다. 라. 마. 바.";
+
+        assertThat(chunker.split(paragraphs, 5))
+                .allSatisfy(chunk -> assertThat(chunker.estimateTokens(chunk)).isLessThanOrEqualTo(5));
+        assertThat(chunker.split(sentences, 5))
+                .allSatisfy(chunk -> assertThat(chunker.estimateTokens(chunk)).isLessThanOrEqualTo(5));
+    }
+
+    @Test
+    void truncatesToBudget() {
+        assertThat(chunker.truncate("짧은 글", 10)).isEqualTo("짧은 글");
+        assertThat(chunker.estimateTokens(chunker.truncate("가".repeat(30), 7))).isLessThanOrEqualTo(7);
+        assertThat("가".repeat(30)).startsWith(chunker.truncate("가".repeat(30), 7));
+    }
+
+    @Test
+    void everyChunkStaysWithinBudgetForMixedContent() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            text.append("문단 ").append(i).append(". 매출은 ").append(i * 100).append("만원입니다. ")
+                    .append("Revenue grew by ").append(i).append(" percent.\n\n");
+        }
+
+        List<String> chunks = chunker.split(text.toString(), 40);
+
+        assertThat(chunks).hasSizeGreaterThan(1);
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunker.estimateTokens(chunk)).isLessThanOrEqualTo(40));
+        assertThat(String.join("", chunks).replaceAll("\\s", ""))
+                .isEqualTo(text.toString().replaceAll("\\s", ""));
+    }
+}
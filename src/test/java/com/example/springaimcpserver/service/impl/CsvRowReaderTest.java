@@ -0,0 +1,54 @@
+package com.example.springaimcpserver.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRowReaderTest {
+
+    @Test
+    void readsQuotedFieldsWithEscapedQuotesAndLineBreaks() throws IOException {
+        List<List<String>> rows = read("\uFEFFa,\"b,\"\"c\"\"\"\r\n\"line\nbreak\",\r\nlast", ',');
+
+        assertThat(rows).containsExactly(
+                List.of("a", "b,\"c\""),
+                List.of("line\nbreak", ""),
+                List.of("last"));
+    }
+
+    @Test
+    void rejectsUnterminatedQuotedField() {
+        assertThatThrownBy(() -> read("a,b\nc,\"never closed\nd,e\n", ','))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("2번째 행");
+    }
+
+    @Test
+    void rejectsFieldLongerThanExcelCell() {
+        String longField = "x".repeat(CsvRowReader.MAX_FIELD_LENGTH + 1);
+
+        assertThat(read("x".repeat(CsvRowReader.MAX_FIELD_LENGTH), '\t').get(0).get(0))
+                .hasSize(CsvRowReader.MAX_FIELD_LENGTH);
+        assertThatThrownBy(() -> read(longField, '\t')).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> read("\"" + longField, '\t')).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<List<String>> read(String input, char delimiter) {
+        List<List<String>> rows = new ArrayList<>();
+        try (CsvRowReader reader = new CsvRowReader(new StringReader(input), delimiter)) {
+            List<String> row;
+            while ((row = reader.readRow()) != null) {
+                rows.add(row);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.springaimcpserver.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvWriterTest {
+
+    @Test
+    void quotesOnlyCellsWithDelimitersQuotesOrLineBreaks() throws IOException {
+        String csv = write(',', false,
+                List.of("이름", "메모"),
+                Arrays.asList("a,b", "say \"hi\""),
+                Arrays.asList("line\nbreak", null),
+                List.of("plain", ""));
+
+        assertThat(csv).isEqualTo("이름,메모\r\n"
+                + "\"a,b\",\"say \"\"hi\"\"\"\r\n"
+                + "\"line\nbreak\",\r\n"
+                + "plain,\r\n");
+    }
+
+    @Test
+    void usesTabDelimiterWithoutQuotingCommas() throws IOException {
+        String tsv = write('\t', false, List.of("a,b", "c\td"));
+
+        assertThat(tsv).isEqualTo("a,b\t\"c\td\"\r\n");
+    }
+
+    @Test
+    void writesBomOnlyWhenRequested() throws IOException {
+        assertThat(write(',', true, List.of("a"))).isEqualTo("\uFEFFa\r\n");
+        assertThat(write(',', false, List.of("a"))).isEqualTo("a\r\n");
+    }
+
+    @Test
+    void encodesMultiByteTextAcrossBufferBoundaries() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StringBuilder expected = new StringBuilder();
+        long rowCount;
+        try (CsvWriter writer = new CsvWriter(Channels.newChannel(out), ',', false)) {
+            for (int i = 0; i < 20_000; i++) {
+                List<String> row = List.of(String.valueOf(i), "서울특별시 " + i, "메모, " + i);
+                writer.writeRow(row);
+                expected.append(i).append(",서울특별시 ").append(i).append(",\"메모, ").append(i).append("\"\r\n");
+            }
+            rowCount = writer.getRowCount();
+        }
+
+        assertThat(rowCount).isEqualTo(20_000);
+        assertThat(out.size()).isGreaterThan(64 * 1024);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(expected.toString());
+    }
+
+    @Test
+    void flushesOnCloseWithoutClosingTheChannel() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(out);
+
+        CsvWriter writer = new CsvWriter(channel, ',', false);
+        writer.writeRow(List.of("a", "b"));
+        assertThat(out.size()).isZero();
+
+        writer.close();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("a,b\r\n");
+        assertThat(channel.isOpen()).isTrue();
+    }
+
+    @SafeVarargs
+    private static String write(char delimiter, boolean bom, List<String>... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(Channels.newChannel(out), delimiter, bom)) {
+            for (List<String> row : rows) {
+                writer.writeRow(row);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
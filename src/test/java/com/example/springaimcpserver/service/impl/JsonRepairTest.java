@@ -0,0 +1,72 @@
+package com.example.springaimcpserver.service.impl;
+
+import com.example.springaimcpserver.service.impl.JsonRepair.Outcome;
+import com.example.springaimcpserver.service.impl.JsonRepair.Result;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonRepairTest {
+
+    @Test
+    void keepsValidJsonUnchanged() {
+        Result result = JsonRepair.repair("{\"a\": \"x}\\\"]\", \"b\": [1, 2]}");
+
+        assertThat(result.outcome()).isEqualTo(Outcome.CLEAN);
+        assertThat(result.json()).isEqualTo("{\"a\": \"x}\\\"]\", \"b\": [1, 2]}");
+    }
+
+    @Test
+    void stripsCodeFenceAndSurroundingProse() {
+        Result fenced = JsonRepair.repair("결과입니다.\n```json\n{\"a\": [1, 2]}\n```\n감사합니다.");
+        Result trailing = JsonRepair.repair("{\"a\": 1} 이상입니다.");
+
+        assertThat(fenced.outcome()).isEqualTo(Outcome.CLEAN);
+        assertThat(fenced.json()).isEqualTo("{\"a\": [1, 2]}");
+        assertThat(trailing.outcome()).isEqualTo(Outcome.CLEAN);
+        assertThat(trailing.json()).isEqualTo("{\"a\": 1}");
+    }
+
+    @Test
+    void skipsBracketsInLeadingProse() {
+        Result result = JsonRepair.repair("[결과] 요청하신 표입니다: {\"rows\": [[\"a\"]]}");
+
+        assertThat(result.outcome()).isEqualTo(Outcome.CLEAN);
+        assertThat(result.json()).isEqualTo("{\"rows\": [[\"a\"]]}");
+    }
+
+    @Test
+    void keepsTopLevelArrays() {
+        Result result = JsonRepair.repair("다음과 같습니다: [{\"title\": \"a\"}]");
+
+        assertThat(result.outcome()).isEqualTo(Outcome.CLEAN);
+        assertThat(result.json()).isEqualTo("[{\"title\": \"a\"}]");
+    }
+
+    @Test
+    void removesTrailingCommasAndUnmatchedClosers() {
+        Result commas = JsonRepair.repair("{\"a\": [1, 2,], }");
+        Result closers = JsonRepair.repair("{\"a\": [1]]}");
+
+        assertThat(commas.outcome()).isEqualTo(Outcome.REPAIRED);
+        assertThat(commas.json()).isEqualTo("{\"a\": [1, 2]}");
+        assertThat(closers.outcome()).isEqualTo(Outcome.REPAIRED);
+        assertThat(closers.json()).isEqualTo("{\"a\": [1]}");
+    }
+
+    @Test
+    void salvagesCompletedItemsOfTruncatedResponse() {
+        Result result = JsonRepair.repair("{\"rows\": [[\"a\", \"b\"], [\"c\", \"d\"], [\"e\", \"f");
+
+        assertThat(result.outcome()).isEqualTo(Outcome.SALVAGED);
+        assertThat(result.json()).isEqualTo("{\"rows\": [[\"a\", \"b\"], [\"c\", \"d\"]]}");
+    }
+
+    @Test
+    void failsWhenNothingCanBeSalvaged() {
+        assertThat(JsonRepair.repair(null).outcome()).isEqualTo(Outcome.FAILED);
+        assertThat(JsonRepair.repair("JSON 이 없습니다.").outcome()).isEqualTo(Outcome.FAILED);
+        assertThat(JsonRepair.repair("{\"rows\": [\"a").outcome()).isEqualTo(Outcome.FAILED);
+        assertThat(JsonRepair.repair("[참고] 내용 없음").json()).isNull();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.springaimcpserver.service.impl;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 형식 판별 셀 기록과 모든 값을 공유 문자열로 기록하는 방식의 렌더링 시간과 파일 크기를 비교합니다.
+ * 실행: ./gradlew benchmark --tests '*TypedCellWriterBenchmark'
+ */
+@Tag("benchmark")
+class TypedCellWriterBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final int WARMUP_ITERATIONS = 2;
+    private static final int ITERATIONS = 5;
+
+    private static final String[] REGIONS = {"서울", "부산", "대구", "인천", "광주", "대전", "울산"};
+
+    @Test
+    void compareTypedCellsWithSharedStrings() throws IOException {
+        List<List<String>> rows = corpus(ROWS);
+
+        Result shared = measure(rows, false);
+        Result typed = measure(rows, true);
+
+        System.out.printf("typed-cell corpus: %d rows x %d columns%n", ROWS, rows.get(0).size());
+        System.out.printf("  shared strings : median %6d ms, %,d bytes%n", shared.medianMillis(), shared.bytes());
+        System.out.printf("  typed + inline : median %6d ms, %,d bytes%n", typed.medianMillis(), typed.bytes());
+
+        assertThat(shared.bytes()).isPositive();
+        assertThat(typed.bytes()).isPositive();
+    }
+
+    /**
+     * 모델 출력과 CSV 적재에서 흔한 열 구성(고유 코드, 반복되는 지역명, 천 단위 구분 금액, 비율, 날짜,
+     * 앞자리 0 코드, 고유 메모)으로 된 고정 시드 데이터를 만듭니다.
+     */
+    private static List<List<String>> corpus(int rowCount) {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+
+        List<List<String>> rows = new ArrayList<>(rowCount + 1);
+        rows.add(List.of("주문번호", "지역", "금액", "할인율", "주문일", "우편번호", "메모"));
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(Arrays.asList(
+                    String.format("ORD-%07d", i),
+                    REGIONS[random.nextInt(REGIONS.length)],
+                    String.format("%,d", random.nextInt(10_000_000)),
+                    random.nextInt(50) + "." + random.nextInt(10) + "%",
+                    start.plusDays(random.nextInt(365)).toString(),
+                    String.format("%05d", random.nextInt(100_000)),
+                    "고객 요청 " + Long.toHexString(random.nextLong())));
+        }
+        return rows;
+    }
+
+    private static Result measure(List<List<String>> rows, boolean typed) throws IOException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            write(rows, typed);
+        }
+
+        long[] millis = new long[ITERATIONS];
+        long bytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long startTime = System.nanoTime();
+            bytes = write(rows, typed);
+            millis[i] = (System.nanoTime() - startTime) / 1_000_000;
+        }
+
+        Arrays.sort(millis);
+        return new Result(millis[ITERATIONS / 2], bytes);
+    }
+
+    private static long write(List<List<String>> rows, boolean typed) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Data");
+            TypedCellWriter cellWriter = new TypedCellWriter(workbook, null);
+            boolean[] inlineColumns = typed ? TypedCellWriter.inlineColumns(rows) : new boolean[0];
+
+            for (int r = 0; r < rows.size(); r++) {
+                Row row = sheet.createRow(r);
+                List<String> values = rows.get(r);
+                for (int c = 0; c < values.size(); c++) {
+                    Cell cell = row.createCell(c);
+                    if (typed && r > 0) {
+                        cellWriter.write(cell, values.get(c), c < inlineColumns.length && inlineColumns[c]);
+                    } else {
+                        cell.setCellValue(values.get(c));
+                    }
+                }
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            workbook.write(out);
+            return out.size();
+        }
+    }
+
+    private record Result(long medianMillis, long bytes) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.springaimcpserver.service.impl;
+
+import com.example.springaimcpserver.service.impl.TypedCellWriter.Kind;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypedCellWriterTest {
+
+    @Test
+    void detectsNumbersPercentsDatesAndBooleans() {
+        assertThat(TypedCellWriter.detect("1234")).isEqualTo(Kind.NUMBER);
+        assertThat(TypedCellWriter.detect("-12.50")).isEqualTo(Kind.NUMBER);
+        assertThat(TypedCellWriter.detect("1,234,567")).isEqualTo(Kind.NUMBER);
+        assertThat(TypedCellWriter.detect("12.5%")).isEqualTo(Kind.PERCENT);
+        assertThat(TypedCellWriter.detect("2024-01-15")).isEqualTo(Kind.DATE);
+        assertThat(TypedCellWriter.detect("2024/1/5")).isEqualTo(Kind.DATE);
+        assertThat(TypedCellWriter.detect("2024-01-15 09:30")).isEqualTo(Kind.DATE_TIME);
+        assertThat(TypedCellWriter.detect("TRUE")).isEqualTo(Kind.BOOLEAN);
+        assertThat(TypedCellWriter.detect("")).isEqualTo(Kind.BLANK);
+        assertThat(TypedCellWriter.detect(null)).isEqualTo(Kind.BLANK);
+    }
+
+    @Test
+    void detectsFormulasOnlyWhenAllowed() {
+        assertThat(TypedCellWriter.detect("=SUM(A1:A2)")).isEqualTo(Kind.STRING);
+        assertThat(TypedCellWriter.detect("=HYPERLINK(\"http://example.com\")", false)).isEqualTo(Kind.STRING);
+        assertThat(TypedCellWriter.detect("=SUM(A1:A2)", true)).isEqualTo(Kind.FORMULA);
+        assertThat(TypedCellWriter.detect("=", true)).isEqualTo(Kind.STRING);
+    }
+
+    @Test
+    void keepsCodesAndOverlongIntegersAsStrings() {
+        assertThat(TypedCellWriter.detect("01234")).isEqualTo(Kind.STRING);
+        assertThat(TypedCellWriter.detect("1234567890123456")).isEqualTo(Kind.STRING);
+        assertThat(TypedCellWriter.detect("2024-13-01")).isEqualTo(Kind.STRING);
+        assertThat(TypedCellWriter.detect("서울")).isEqualTo(Kind.STRING);
+        assertThat(TypedCellWriter.detect("=")).isEqualTo(Kind.STRING);
+    }
+
+    @Test
+    void inlinesOnlyMostlyDistinctStringColumnsWithEnoughRows() {
+        List<List<String>> rows = new ArrayList<>();
+        rows.add(List.of("메모", "지역", "금액"));
+        for (int i = 0; i < 30; i++) {
+            rows.add(List.of("메모 " + i, i % 2 == 0 ? "서울" : "부산", String.valueOf(i)));
+        }
+
+        assertThat(TypedCellWriter.inlineColumns(rows)).containsExactly(true, false, false);
+        assertThat(TypedCellWriter.inlineColumns(rows.subList(0, 11))).containsExactly(false, false, false);
+    }
+}